@@ -0,0 +1,42 @@
+package benchmarks;
+
+import entities.Board;
+import utils.FenUtilities;
+
+import java.util.Map;
+
+/**
+ * The fixed corpus every benchmark runs over, so results stay comparable between commits.
+ * Benchmarks take the position as a {@code @Param} holding one of the names below.
+ */
+public final class BenchmarkPositions {
+
+    public static final String OPENING = "opening";
+    public static final String MIDDLEGAME = "middlegame";
+    public static final String ENDGAME = "endgame";
+
+    private static final Map<String, String> FENS = Map.of(
+            // Ruy Lopez after 1.e4 e5 2.Nf3 Nc6 3.Bb5 a6: every piece still on the board
+            OPENING, "r1bqkbnr/1ppp1ppp/p1n5/1B2p3/4P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 0 4",
+            // Kiwipete: open lines, pins, castling on both sides and an en passant square in reach
+            MIDDLEGAME, "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            // Rook and pawns against rook: few pieces, long king and rook moves
+            ENDGAME, "8/5pk1/6p1/3R4/1r5P/6P1/5PK1/8 w - - 0 40"
+    );
+
+    private BenchmarkPositions() {
+        throw new RuntimeException("Cannot instantiate BenchmarkPositions");
+    }
+
+    /**
+     * @param name one of {@link #OPENING}, {@link #MIDDLEGAME} or {@link #ENDGAME}
+     * @return a fresh board of that position
+     */
+    public static Board create(final String name) {
+        final String fen = FENS.get(name);
+        if (fen == null) {
+            throw new IllegalArgumentException("Unknown benchmark position: " + name);
+        }
+        return FenUtilities.createBoardFromFen(fen);
+    }
+}
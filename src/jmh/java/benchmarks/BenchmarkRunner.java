@@ -0,0 +1,34 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar. Runs the benchmarks with the gc profiler, so every hot path reports
+ * its allocation rate next to its ops/sec, and writes the results to jmh-result.json as the baseline
+ * later runs are compared against.
+ *
+ * <p>Any standard JMH command line option is accepted as well, e.g. a benchmark regex or {@code -wi 5}.</p>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+        throw new RuntimeException("Cannot instantiate BenchmarkRunner");
+    }
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        final Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result.json")
+                .build();
+        new Runner(options).run();
+    }
+}
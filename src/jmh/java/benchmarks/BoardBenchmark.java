@@ -0,0 +1,68 @@
+package benchmarks;
+
+import core.Move;
+import core.ai.SearchBoard;
+import entities.Board;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+
+/**
+ * Board construction: {@link Move#execute()} of every legal move, which builds one {@link Board} each,
+ * against make/unmake of the same moves on a {@link SearchBoard}.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BoardBenchmark {
+
+    @Param({BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME})
+    public String position;
+
+    private Board board;
+    private Move[] legalMoves;
+    private SearchBoard searchBoard;
+    private int[] packedMoves;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.board = BenchmarkPositions.create(this.position);
+        this.legalMoves = this.board.getCurrentPlayer().getLegalMoves().toArray(new Move[0]);
+        this.searchBoard = new SearchBoard(this.board);
+        final int[] moves = new int[SearchBoard.MAX_MOVES];
+        this.packedMoves = Arrays.copyOf(moves, this.searchBoard.generateMoves(moves));
+    }
+
+    @Benchmark
+    public void executeMoves(final Blackhole blackhole) {
+        for (final Move move : this.legalMoves) {
+            blackhole.consume(move.execute());
+        }
+    }
+
+    @Benchmark
+    public long makeUnmakeMoves() {
+        long keys = 0;
+        for (final int move : this.packedMoves) {
+            this.searchBoard.makeMove(move);
+            keys ^= this.searchBoard.getZobristKey();
+            this.searchBoard.unmakeMove();
+        }
+        return keys;
+    }
+
+    @Benchmark
+    public SearchBoard createSearchBoard() {
+        return new SearchBoard(this.board);
+    }
+}
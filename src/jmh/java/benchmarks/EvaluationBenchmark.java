@@ -0,0 +1,48 @@
+package benchmarks;
+
+import core.ai.SearchBoard;
+import core.ai.StandardBoardEvaluator;
+import entities.Board;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link StandardBoardEvaluator} on both board representations. The {@link Board} has its legal moves
+ * memoised after the first call, so this measures the scoring itself.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EvaluationBenchmark {
+
+    @Param({BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME})
+    public String position;
+
+    private final StandardBoardEvaluator evaluator = new StandardBoardEvaluator();
+    private Board board;
+    private SearchBoard searchBoard;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.board = BenchmarkPositions.create(this.position);
+        this.searchBoard = new SearchBoard(this.board);
+    }
+
+    @Benchmark
+    public int evaluateBoard() {
+        return this.evaluator.evaluate(this.board, 0);
+    }
+
+    @Benchmark
+    public int evaluateSearchBoard() {
+        return this.evaluator.evaluate(this.searchBoard, 0);
+    }
+}
@@ -0,0 +1,65 @@
+package benchmarks;
+
+import core.Move;
+import core.ai.LazySmpSearch;
+import core.ai.TimeBudget;
+import core.ai.TranspositionTable;
+import entities.Board;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to depth of the Lazy SMP search by thread count: the speedup over one thread is the time of
+ * the 1-thread run divided by that of the n-thread run. The table is cleared before every search,
+ * so no search profits from the one before it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LazySmpBenchmark {
+
+    @Param({BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME})
+    public String position;
+
+    @Param({"7"})
+    public int depth;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private Board board;
+    private TranspositionTable transpositionTable;
+    private LazySmpSearch search;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.board = BenchmarkPositions.create(this.position);
+        this.transpositionTable = new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB);
+        this.search = new LazySmpSearch(this.depth, TimeBudget.UNLIMITED, this.transpositionTable, this.threads, true);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        this.transpositionTable.clear();
+    }
+
+    @Benchmark
+    public Move timeToDepth() {
+        return this.search.execute(this.board);
+    }
+}
@@ -0,0 +1,60 @@
+package benchmarks;
+
+import core.Move;
+import core.ai.SearchBoard;
+import entities.Board;
+import entities.Piece;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Legal move generation: per piece on the immutable {@link Board}, for a whole freshly built board
+ * (so the player's memoised moves are not reused), and packed on the {@link SearchBoard}.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MoveGenerationBenchmark {
+
+    @Param({BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME})
+    public String position;
+
+    private Board board;
+    private Move firstMove;
+    private SearchBoard searchBoard;
+    private final int[] moves = new int[SearchBoard.MAX_MOVES];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.board = BenchmarkPositions.create(this.position);
+        this.firstMove = this.board.getCurrentPlayer().getLegalMoves().iterator().next();
+        this.searchBoard = new SearchBoard(this.board);
+    }
+
+    @Benchmark
+    public void pieceLegalMoves(final Blackhole blackhole) {
+        for (final Piece piece : this.board.getCurrentPlayer().getActivePieces()) {
+            blackhole.consume(piece.calculateLegalMoves(this.board));
+        }
+    }
+
+    @Benchmark
+    public int playerLegalMoves() {
+        // Every executed move is a new board whose players have not generated their moves yet
+        return this.firstMove.execute().getCurrentPlayer().getLegalMoves().size();
+    }
+
+    @Benchmark
+    public int searchBoardMoves() {
+        return this.searchBoard.generateMoves(this.moves);
+    }
+}
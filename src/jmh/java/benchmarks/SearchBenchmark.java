@@ -0,0 +1,61 @@
+package benchmarks;
+
+import core.Move;
+import core.ai.MiniMax;
+import core.ai.ParallelMiniMax;
+import entities.Board;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A full fixed-depth search from each position, the end-to-end cost the AI player pays per move.
+ * Searches take long enough that the time per search is the clearer figure. The parallel MiniMax
+ * runs on the common pool, so its speedup is bounded by the cores of the machine.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SearchBenchmark {
+
+    @Param({BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME})
+    public String position;
+
+    @Param({"3"})
+    public int depth;
+
+    private Board board;
+    private MiniMax miniMax;
+    private ParallelMiniMax parallelMiniMax;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.board = BenchmarkPositions.create(this.position);
+        this.miniMax = new MiniMax(this.depth);
+        this.parallelMiniMax = new ParallelMiniMax(this.depth);
+    }
+
+    @Benchmark
+    public Move miniMax() {
+        return this.miniMax.execute(this.board);
+    }
+
+    @Benchmark
+    public Move parallelMiniMax() {
+        return this.parallelMiniMax.execute(this.board);
+    }
+}
@@ -1,5 +1,6 @@
 package core;
 
+import core.ai.LazySmpSearch;
 import entities.Alliance;
 
 /**
@@ -30,27 +31,80 @@ public class GameConfiguration {
         HARD
     }
 
+    /**
+     * Search algorithms the AI can play with. MiniMax searches a fixed depth;
+     * the others prune, so they deepen for as long as the clock allows.
+     */
+    public enum SearchAlgorithm {
+        MINIMAX,
+        ALPHA_BETA,
+        PRINCIPAL_VARIATION
+    }
+
     // --- CONFIGURATION FIELDS ---
 
     private final GameMode gameMode;
     private final Difficulty aiDifficulty;
+    private final SearchAlgorithm searchAlgorithm;
+    private final int searchThreads;
     private final int timeControlMinutes;
     private final Alliance playerColor;
 
+    /**
+     * Creates a new game configuration with the principal variation search algorithm.
+     *
+     * @param gameMode          the selected game mode (human vs human or vs AI)
+     * @param aiDifficulty      the AI difficulty level; ignored if not in AI mode
+     * @param timeControlMinutes number of minutes allocated per player
+     * @param playerColor       the player's chosen alliance (WHITE or BLACK)
+     */
+    public GameConfiguration(final GameMode gameMode,
+                             final Difficulty aiDifficulty,
+                             final int timeControlMinutes,
+                             final Alliance playerColor) {
+        this(gameMode, aiDifficulty, SearchAlgorithm.PRINCIPAL_VARIATION, timeControlMinutes, playerColor);
+    }
+
+    /**
+     * Creates a new game configuration whose AI searches with one thread per available processor.
+     *
+     * @param gameMode          the selected game mode (human vs human or vs AI)
+     * @param aiDifficulty      the AI difficulty level; ignored if not in AI mode
+     * @param searchAlgorithm   the search the AI plays with; ignored if not in AI mode
+     * @param timeControlMinutes number of minutes allocated per player
+     * @param playerColor       the player's chosen alliance (WHITE or BLACK)
+     */
+    public GameConfiguration(final GameMode gameMode,
+                             final Difficulty aiDifficulty,
+                             final SearchAlgorithm searchAlgorithm,
+                             final int timeControlMinutes,
+                             final Alliance playerColor) {
+        this(gameMode, aiDifficulty, searchAlgorithm, LazySmpSearch.DEFAULT_THREADS, timeControlMinutes, playerColor);
+    }
+
     /**
      * Creates a new game configuration defining all gameplay parameters.
      *
      * @param gameMode          the selected game mode (human vs human or vs AI)
      * @param aiDifficulty      the AI difficulty level; ignored if not in AI mode
+     * @param searchAlgorithm   the search the AI plays with; ignored if not in AI mode
+     * @param searchThreads     the threads the AI searches with; ignored if not in AI mode
      * @param timeControlMinutes number of minutes allocated per player
      * @param playerColor       the player's chosen alliance (WHITE or BLACK)
      */
     public GameConfiguration(final GameMode gameMode,
                              final Difficulty aiDifficulty,
+                             final SearchAlgorithm searchAlgorithm,
+                             final int searchThreads,
                              final int timeControlMinutes,
                              final Alliance playerColor) {
+        if (searchThreads < 1) {
+            throw new IllegalArgumentException("The AI needs at least one search thread, got " + searchThreads);
+        }
         this.gameMode = gameMode;
         this.aiDifficulty = aiDifficulty;
+        this.searchAlgorithm = searchAlgorithm;
+        this.searchThreads = searchThreads;
         this.timeControlMinutes = timeControlMinutes;
         this.playerColor = playerColor;
     }
@@ -77,6 +131,28 @@ public class GameConfiguration {
         return this.aiDifficulty;
     }
 
+    /**
+     * Returns the search algorithm the AI plays with.
+     * <p>
+     * Note: This value is only relevant when the game mode is HUMAN_VS_AI.
+     *
+     * @return the search algorithm
+     */
+    public SearchAlgorithm getSearchAlgorithm() {
+        return this.searchAlgorithm;
+    }
+
+    /**
+     * Returns the number of threads the AI searches with.
+     * <p>
+     * Note: This value is only relevant when the game mode is HUMAN_VS_AI.
+     *
+     * @return the search thread count
+     */
+    public int getSearchThreads() {
+        return this.searchThreads;
+    }
+
     /**
      * Returns the configured time control value.
      *
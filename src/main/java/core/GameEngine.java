@@ -1,8 +1,15 @@
 package core;
 
+import core.ai.AlphaBeta;
+import core.ai.LazySmpSearch;
 import core.ai.MiniMax;
 import core.ai.MoveStrategy;
+import core.ai.ParallelMiniMax;
+import core.ai.PrincipalVariationSearch;
+import core.ai.TimeBudget;
+import core.ai.TranspositionTable;
 import entities.Board;
+import entities.GameStatus;
 import entities.MoveTransition;
 import entities.Piece;
 import entities.Square;
@@ -28,17 +35,24 @@ import javafx.scene.text.Font;
 import javafx.util.Duration;
 
 import java.io.InputStream;
-import java.util.Collection;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 public class GameEngine {
 
+    // shortest time the AI appears to think, so its move sound does not run into the player's
+    private static final long MIN_THINK_MILLIS = 1000;
+
     private final StackPane rootLayer;
     private final BorderPane uiLayer;
 
     private final BoardPanel boardPanel;
     private final TimerPanel gameTimer;
     private Board chessBoard;
+    // kept for the whole game, so each AI search starts from what the previous ones learned
+    private final TranspositionTable transpositionTable = new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB);
+    // workers of the parallel MiniMax, created with its first search
+    private ForkJoinPool miniMaxPool;
 
     private VBox pauseMenu;
     private VBox confirmationOverlay;
@@ -64,6 +78,8 @@ public class GameEngine {
             this.config = new GameConfiguration(
                     inputConfig.getGameMode(),
                     inputConfig.getAiDifficulty(),
+                    inputConfig.getSearchAlgorithm(),
+                    inputConfig.getSearchThreads(),
                     inputConfig.getTimeControlMinutes(),
                     randomColor
             );
@@ -158,18 +174,46 @@ public class GameEngine {
         }
 
         System.out.println("AI is thinking...");
+        final GameConfiguration.SearchAlgorithm algorithm = config.getSearchAlgorithm();
+        final boolean alphaBeta = algorithm != GameConfiguration.SearchAlgorithm.MINIMAX;
         final int depth;
         if (config.getAiDifficulty() == GameConfiguration.Difficulty.EASY) depth = 1;
         else if (config.getAiDifficulty() == GameConfiguration.Difficulty.MEDIUM) depth = 2;
-        else depth = 3;
+        // alpha-beta deepens for as long as its clock allows; MiniMax cannot stop early, so it stays shallow
+        else depth = alphaBeta ? AlphaBeta.MAX_DEPTH : 3;
+
+        // The budget comes from the AI's own clock, read here on the FX thread that ticks it
+        final TimeBudget timeBudget = TimeBudget.fromRemainingTime(
+                gameTimer.getSecondsLeft(chessBoard.getCurrentPlayer().getAlliance()) * 1000L);
+        final MoveStrategy strategy;
+        if (alphaBeta && config.getSearchThreads() > 1) {
+            strategy = new LazySmpSearch(depth, timeBudget, transpositionTable, config.getSearchThreads(),
+                    algorithm == GameConfiguration.SearchAlgorithm.PRINCIPAL_VARIATION);
+        } else if (algorithm == GameConfiguration.SearchAlgorithm.PRINCIPAL_VARIATION) {
+            strategy = new PrincipalVariationSearch(depth, timeBudget, transpositionTable);
+        } else if (alphaBeta) {
+            strategy = new AlphaBeta(depth, timeBudget, transpositionTable);
+        } else if (config.getSearchThreads() > 1) {
+            if (miniMaxPool == null) {
+                miniMaxPool = new ForkJoinPool(config.getSearchThreads());
+            }
+            strategy = new ParallelMiniMax(depth, miniMaxPool, true);
+        } else {
+            strategy = new MiniMax(depth);
+        }
 
         Task<Move> aiTask = new Task<>() {
             @Override
             protected Move call() throws Exception {
-                // Delay to separate sounds and feel natural
-                Thread.sleep(1000);
-                MoveStrategy strategy = new MiniMax(depth);
-                return strategy.execute(chessBoard);
+                final long startTime = System.currentTimeMillis();
+                final Move move = strategy.execute(chessBoard);
+                // Pad quick answers to separate sounds and feel natural, but never past the soft limit
+                final long pause = Math.min(MIN_THINK_MILLIS, timeBudget.getSoftLimitMillis())
+                        - (System.currentTimeMillis() - startTime);
+                if (pause > 0) {
+                    Thread.sleep(pause);
+                }
+                return move;
             }
         };
 
@@ -264,9 +308,9 @@ public class GameEngine {
                     // Highlight Selection
                     boardPanel.highlightSourceSquare(squareId);
 
-                    // Highlight Legal Destination Dots
-                    final Collection<Move> legalMoves = piece.calculateLegalMoves(this.chessBoard);
-                    boardPanel.highlightLegals(legalMoves, piece.getPieceAlliance());
+                    // Highlight Legal Destination Dots (the player's legal moves already respect pins and checks)
+                    boardPanel.highlightDestinations(chessBoard.getCurrentPlayer().getLegalDestinations(squareId),
+                            piece.getPieceAlliance());
                 }
             }
         }
@@ -384,11 +428,12 @@ public class GameEngine {
     // --- UTILS ---
 
     private void checkGameOver() {
-        if (chessBoard.getCurrentPlayer().isInCheckMate()) {
+        final GameStatus status = chessBoard.getGameStatus();
+        if (status == GameStatus.CHECKMATE) {
             Alliance winner = chessBoard.getCurrentPlayer().getOpponent().getAlliance();
             String text = winner.isWhite() ? "White Wins!" : "Black Wins!";
             showEndScreen("/assets/background/checkmate.png", text);
-        } else if (chessBoard.getCurrentPlayer().isInStaleMate()) {
+        } else if (status == GameStatus.STALEMATE) {
             showEndScreen("/assets/background/stalemate.png", "Draw (Stalemate)");
         }
     }
@@ -419,14 +464,9 @@ public class GameEngine {
         fade.play();
     }
 
+    // Promotions from a click default to a Queen
     private Move findLegalMove(int currentPos, int destinationPos) {
-        for (final Move move : this.chessBoard.getCurrentPlayer().getLegalMoves()) {
-            if (move.getMovedPiece().getPiecePosition() == currentPos &&
-                    move.getDestinationCoordinate() == destinationPos) {
-                return move;
-            }
-        }
-        return null;
+        return this.chessBoard.getCurrentPlayer().getLegalMove(currentPos, destinationPos, null);
     }
 
     private Button createImageButton(String path, double width) {
@@ -2,6 +2,8 @@ package core;
 
 import entities.*;
 import entities.Board.Builder;
+import utils.BoardUtils;
+import utils.Zobrist;
 
 public abstract class Move {
 
@@ -24,6 +26,46 @@ public abstract class Move {
 
     public abstract Board execute();
 
+    /**
+     * Zobrist key of the board after this move, updated from the current board's key: the moved piece
+     * leaves its square and lands on the destination, a captured piece disappears, the side to move
+     * flips, and the castling rights and en passant file are replaced.
+     *
+     * @param capturedPiece the piece this move removes, or null
+     * @param enPassantPawn the pawn that can be taken en passant on the new board, or null
+     * @return the key for the new board's builder
+     */
+    protected long calculateZobristKey(final Piece capturedPiece, final Pawn enPassantPawn) {
+        final int currentCoordinate = this.movedPiece.getPiecePosition();
+        final Alliance alliance = this.movedPiece.getPieceAlliance();
+        final PieceType pieceType = this.movedPiece.getPieceType();
+        long key = this.board.getZobristKey() ^
+                Zobrist.getPieceKey(alliance, pieceType, currentCoordinate) ^
+                Zobrist.getPieceKey(alliance, pieceType, this.destinationCoordinate) ^
+                Zobrist.getBlackToMoveKey();
+        if (capturedPiece != null) {
+            key ^= Zobrist.getPieceKey(capturedPiece.getPieceAlliance(), capturedPiece.getPieceType(),
+                    capturedPiece.getPiecePosition());
+        }
+        key ^= Zobrist.getCastlingKey(this.board.getCastlingRights()) ^ Zobrist.getCastlingKey(calculateCastlingRights());
+        if (this.board.getEnPassantPawn() != null) {
+            key ^= Zobrist.getEnPassantKey(this.board.getEnPassantPawn().getPiecePosition());
+        }
+        if (enPassantPawn != null) {
+            key ^= Zobrist.getEnPassantKey(enPassantPawn.getPiecePosition());
+        }
+        return key;
+    }
+
+    /**
+     * Castling rights of the board after this move: moving the king or a rook off its home square, or
+     * capturing a rook there, clears the matching bits.
+     */
+    protected int calculateCastlingRights() {
+        return BoardUtils.updateCastlingRights(this.board.getCastlingRights(),
+                this.movedPiece.getPiecePosition(), this.destinationCoordinate);
+    }
+
     // -- GETTERS --
     public int getDestinationCoordinate() {
         return this.destinationCoordinate;
@@ -45,6 +87,11 @@ public abstract class Move {
         return null;
     }
 
+    /** The piece type a pawn promotes to, or null if this move is not a promotion. */
+    public PieceType getPromotionPieceType() {
+        return null;
+    }
+
     // -- IDENTITY --
     @Override
     public int hashCode() {
@@ -65,8 +112,9 @@ public abstract class Move {
             return false;
         }
         final Move otherMove = (Move) other;
+        // Pieces are interned, so the same piece is the same instance
         return this.destinationCoordinate == otherMove.getDestinationCoordinate() &&
-                this.movedPiece.equals(otherMove.getMovedPiece());
+                this.movedPiece == otherMove.getMovedPiece();
     }
 
     // -- FACTORY FOR TESTS & AI --
@@ -75,13 +123,21 @@ public abstract class Move {
         private static final Move NULL_MOVE = new NullMove();
 
         public static Move createMove(final Board board, final int currentCoordinate, final int destinationCoordinate) {
-            for (final Move move : board.getCurrentPlayer().getLegalMoves()) {
-                if (move.getMovedPiece().getPiecePosition() == currentCoordinate &&
-                        move.getDestinationCoordinate() == destinationCoordinate) {
-                    return move;
-                }
-            }
-            return NULL_MOVE;
+            final Move move = board.getCurrentPlayer().getLegalMove(currentCoordinate, destinationCoordinate, null);
+            return move != null ? move : NULL_MOVE;
+        }
+
+        /**
+         * Rebuilds the {@link Move} of a board from a {@link PackedMove}, e.g. the move chosen by the AI.
+         *
+         * @param board the board the move is played on
+         * @param packedMove the packed move
+         * @return the matching legal move, or the null move if there is none
+         */
+        public static Move createMove(final Board board, final int packedMove) {
+            final Move move = board.getCurrentPlayer().getLegalMove(PackedMove.getFrom(packedMove),
+                    PackedMove.getTo(packedMove), PackedMove.getPromotionPieceType(packedMove));
+            return move != null ? move : NULL_MOVE;
         }
     }
 
@@ -127,6 +183,8 @@ public abstract class Move {
             }
             builder.setPiece(this.movedPiece.movePiece(this));
             builder.setNextMoveMaker(this.board.getCurrentPlayer().getOpponent().getAlliance());
+            builder.setCastlingRights(calculateCastlingRights());
+            builder.setZobristKey(calculateZobristKey(null, null));
             return builder.build();
         }
     }
@@ -156,7 +214,7 @@ public abstract class Move {
                 return false;
             }
             final AttackMove otherAttackMove = (AttackMove) other;
-            return super.equals(otherAttackMove) && getAttackedPiece().equals(otherAttackMove.getAttackedPiece());
+            return super.equals(otherAttackMove) && getAttackedPiece() == otherAttackMove.getAttackedPiece();
         }
 
         @Override
@@ -174,6 +232,8 @@ public abstract class Move {
             }
             builder.setPiece(this.movedPiece.movePiece(this));
             builder.setNextMoveMaker(this.board.getCurrentPlayer().getOpponent().getAlliance());
+            builder.setCastlingRights(calculateCastlingRights());
+            builder.setZobristKey(calculateZobristKey(this.attackedPiece, null));
             return builder.build();
         }
 
@@ -226,8 +286,13 @@ public abstract class Move {
                 builder.setPiece(piece);
             }
             builder.setPiece(this.movedPiece.movePiece(this));
-            builder.setPiece(new Rook(this.castleRookDestination, this.castleRook.getPieceAlliance(), false));
+            builder.setPiece(Rook.create(this.castleRookDestination, this.castleRook.getPieceAlliance(), false));
             builder.setNextMoveMaker(this.board.getCurrentPlayer().getOpponent().getAlliance());
+            // The rook hops over the king as well
+            builder.setCastlingRights(calculateCastlingRights());
+            builder.setZobristKey(calculateZobristKey(null, null) ^
+                    Zobrist.getPieceKey(this.castleRook.getPieceAlliance(), PieceType.ROOK, this.castleRookStart) ^
+                    Zobrist.getPieceKey(this.castleRook.getPieceAlliance(), PieceType.ROOK, this.castleRookDestination));
             return builder.build();
         }
 
@@ -249,7 +314,7 @@ public abstract class Move {
                 return false;
             }
             final CastleMove otherCastleMove = (CastleMove) other;
-            return super.equals(otherCastleMove) && this.castleRook.equals(otherCastleMove.getCastleRook());
+            return super.equals(otherCastleMove) && this.castleRook == otherCastleMove.getCastleRook();
         }
     }
 
@@ -322,6 +387,8 @@ public abstract class Move {
             }
             builder.setPiece(this.movedPiece.movePiece(this));
             builder.setNextMoveMaker(this.board.getCurrentPlayer().getOpponent().getAlliance());
+            builder.setCastlingRights(calculateCastlingRights());
+            builder.setZobristKey(calculateZobristKey(this.getAttackedPiece(), null));
             return builder.build();
         }
     }
@@ -346,6 +413,8 @@ public abstract class Move {
             builder.setPiece(movedPawn);
             builder.setEnPassantPawn((Pawn) movedPawn);
             builder.setNextMoveMaker(this.board.getCurrentPlayer().getOpponent().getAlliance());
+            builder.setCastlingRights(calculateCastlingRights());
+            builder.setZobristKey(calculateZobristKey(null, (Pawn) movedPawn));
             return builder.build();
         }
         @Override
@@ -355,11 +424,17 @@ public abstract class Move {
     public static class PawnPromotion extends Move {
         final Move decoratedMove;
         final Piece promotedPawn;
+        final PieceType promotionType;
 
         public PawnPromotion(final Move decoratedMove) {
+            this(decoratedMove, PieceType.QUEEN);
+        }
+
+        public PawnPromotion(final Move decoratedMove, final PieceType promotionType) {
             super(decoratedMove.board, decoratedMove.getMovedPiece(), decoratedMove.getDestinationCoordinate());
             this.decoratedMove = decoratedMove;
             this.promotedPawn = decoratedMove.getMovedPiece();
+            this.promotionType = promotionType;
         }
 
         @Override
@@ -373,12 +448,53 @@ public abstract class Move {
             for (final Piece piece : pawnMovedBoard.getCurrentPlayer().getOpponent().getActivePieces()) {
                 builder.setPiece(piece);
             }
-            builder.setPiece(this.promotedPawn.getPieceAlliance().isWhite() ?
-                    new Queen(this.destinationCoordinate, this.promotedPawn.getPieceAlliance(), false) :
-                    new Queen(this.destinationCoordinate, this.promotedPawn.getPieceAlliance(), false));
+            final Piece promotionPiece = createPromotionPiece();
+            builder.setPiece(promotionPiece);
 
             builder.setNextMoveMaker(pawnMovedBoard.getCurrentPlayer().getAlliance());
+            // Swap the pawn that just arrived for the promotion piece
+            builder.setCastlingRights(pawnMovedBoard.getCastlingRights());
+            builder.setZobristKey(pawnMovedBoard.getZobristKey() ^
+                    Zobrist.getPieceKey(this.promotedPawn.getPieceAlliance(), PieceType.PAWN, this.destinationCoordinate) ^
+                    Zobrist.getPieceKey(promotionPiece.getPieceAlliance(), promotionPiece.getPieceType(), this.destinationCoordinate));
             return builder.build();
         }
+
+        private Piece createPromotionPiece() {
+            return Piece.create(this.promotionType, this.destinationCoordinate, this.promotedPawn.getPieceAlliance(), false);
+        }
+
+        @Override
+        public boolean isAttack() {
+            return this.decoratedMove.isAttack();
+        }
+
+        @Override
+        public Piece getAttackedPiece() {
+            return this.decoratedMove.getAttackedPiece();
+        }
+
+        @Override
+        public PieceType getPromotionPieceType() {
+            return this.promotionType;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.decoratedMove.hashCode() + this.promotionType.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof PawnPromotion)) {
+                return false;
+            }
+            final PawnPromotion otherPromotion = (PawnPromotion) other;
+            return this.decoratedMove.equals(otherPromotion.decoratedMove) &&
+                    this.promotionType == otherPromotion.promotionType;
+        }
     }
-}
\ No newline at end of file
+}
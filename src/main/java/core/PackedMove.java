@@ -0,0 +1,110 @@
+package core;
+
+import entities.PieceType;
+
+/**
+ * Compact {@code int} encoding of a move, used by the AI search instead of {@link Move} objects.
+ *
+ * <p>Layout (low to high bits):
+ * <ul>
+ *     <li>0-5: origin square</li>
+ *     <li>6-11: destination square</li>
+ *     <li>12-14: moved piece type ({@link PieceType#ordinal()})</li>
+ *     <li>15-17: captured piece type + 1, or 0 when nothing is captured</li>
+ *     <li>18-20: promotion piece type + 1, or 0 when the move is not a promotion</li>
+ *     <li>21-22: special move flag ({@link #NORMAL}, {@link #PAWN_JUMP}, {@link #EN_PASSANT}, {@link #CASTLE})</li>
+ * </ul>
+ * A real move never has the same origin and destination, so {@link #NO_MOVE} (0) is free to mean "no move".
+ * {@link Move} objects are only rebuilt from this encoding at the GUI/API boundary,
+ * see {@link Move.MoveFactory#createMove(entities.Board, int)}.</p>
+ */
+public final class PackedMove {
+
+    public static final int NO_MOVE = 0;
+
+    /** Piece type value meaning "none" for the captured and promotion fields. */
+    public static final int NO_PIECE_TYPE = -1;
+
+    // --- SPECIAL MOVE FLAGS ---
+    public static final int NORMAL = 0;
+    public static final int PAWN_JUMP = 1;
+    public static final int EN_PASSANT = 2;
+    public static final int CASTLE = 3;
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    private PackedMove() {
+        throw new RuntimeException("Cannot instantiate PackedMove");
+    }
+
+    /**
+     * Packs a move.
+     *
+     * @param from origin square
+     * @param to destination square
+     * @param movedType ordinal of the moving piece's type
+     * @param capturedType ordinal of the captured piece's type, or {@link #NO_PIECE_TYPE}
+     * @param promotionType ordinal of the promotion piece's type, or {@link #NO_PIECE_TYPE}
+     * @param flag one of the special move flags
+     * @return the packed move
+     */
+    public static int create(final int from, final int to, final int movedType,
+                             final int capturedType, final int promotionType, final int flag) {
+        return from | (to << 6) | (movedType << 12) | ((capturedType + 1) << 15) |
+                ((promotionType + 1) << 18) | (flag << 21);
+    }
+
+    public static int getFrom(final int move) {
+        return move & 0x3F;
+    }
+
+    public static int getTo(final int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int getMovedType(final int move) {
+        return (move >>> 12) & 0x7;
+    }
+
+    public static int getCapturedType(final int move) {
+        return ((move >>> 15) & 0x7) - 1;
+    }
+
+    public static int getPromotionType(final int move) {
+        return ((move >>> 18) & 0x7) - 1;
+    }
+
+    public static int getFlag(final int move) {
+        return (move >>> 21) & 0x3;
+    }
+
+    public static boolean isCapture(final int move) {
+        return (move & (0x7 << 15)) != 0;
+    }
+
+    public static boolean isPromotion(final int move) {
+        return (move & (0x7 << 18)) != 0;
+    }
+
+    /**
+     * Returns the promotion piece type, or null for moves that do not promote.
+     */
+    public static PieceType getPromotionPieceType(final int move) {
+        return isPromotion(move) ? PIECE_TYPES[getPromotionType(move)] : null;
+    }
+
+    /**
+     * Formats a move in coordinate notation, e.g. "e2e4" or "e7e8n", for logs.
+     */
+    public static String toString(final int move) {
+        if (move == NO_MOVE) {
+            return "0000";
+        }
+        final String text = squareName(getFrom(move)) + squareName(getTo(move));
+        return isPromotion(move) ? text + PIECE_TYPES[getPromotionType(move)].toString().toLowerCase() : text;
+    }
+
+    private static String squareName(final int square) {
+        return "" + (char) ('a' + square % 8) + (char) ('8' - square / 8);
+    }
+}
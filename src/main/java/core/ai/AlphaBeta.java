@@ -0,0 +1,755 @@
+package core.ai;
+
+import core.Move;
+import core.PackedMove;
+import entities.Board;
+import entities.PieceType;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Negamax search with alpha-beta pruning, driven by iterative deepening.
+ *
+ * <p>Scores the same tree as {@link MiniMax}, but from the point of view of the side to move: a
+ * position worth x to one side is worth -x to the other, so one recursion serves both players.
+ * A branch is cut off as soon as it is proven no better than an alternative already found
+ * (alpha) or too good for the opponent to allow (beta).</p>
+ *
+ * <p>Bounds are fail-soft: a node that fails returns its best score rather than the bound. At the root
+ * a move is only taken when it scores strictly better than every earlier one, exactly like MiniMax,
+ * so both strategies choose the same move at the same depth; alpha-beta just visits fewer nodes.
+ * The one exception is a position the transposition table knows from a deeper search of the same
+ * tree: its better informed score is used, which can rarely change the choice.</p>
+ *
+ * <p>The root is searched to depth 1, 2, 3... up to the maximum depth. With a {@link TimeBudget}, no
+ * new iteration starts after the soft limit, and an iteration still running at the hard limit is
+ * abandoned: the move of the last completed iteration is played. Depth 1 always completes, so there
+ * is always a move to play.</p>
+ *
+ * <p>Every node looks its position up in a {@link TranspositionTable} first: a result of a search at
+ * least as deep either settles the node or, as a bound, can cut it off. The table can be kept
+ * between moves, so the next search starts from what the last one learned.</p>
+ *
+ * <p>Moves are tried in the order of a {@link MoveOrderer}. Below the root they are generated in
+ * stages: the table's move is checked and tried before anything is generated, then the captures and
+ * promotions, and the quiet moves only once none of those cut the node off. At the root the order
+ * would break ties differently from MiniMax, so a root move generated before the current best is
+ * searched with a window one point lower: a tie then comes back as an exact score and the earlier
+ * move wins it.</p>
+ *
+ * <p>At the horizon a quiescence search plays out captures and promotions until the position is quiet,
+ * so no leaf is scored in the middle of an exchange. The side to move may "stand pat" on the static
+ * score instead of capturing, and captures that could not lift that score back to alpha even with a
+ * safety margin are skipped (delta pruning). Quiescence changes the scores, so the MiniMax equivalence
+ * above only holds with it switched off.</p>
+ *
+ * <p>The principal variation, the line both sides are expected to play, is collected in a triangular
+ * array: row {@code ply} holds the best line found from that ply, and a new best move at a ply is
+ * prefixed to the row below. A transposition table cut-off ends the line early.</p>
+ *
+ * <p>With principal variation search switched on (see {@link PrincipalVariationSearch}) only the first
+ * move of a node gets the full window; the others are only proven worse with a zero-width window and
+ * searched again with the full one when that proof fails. Iterations after the first then start with an
+ * aspiration window around the previous score, widened and searched again when the score falls outside.</p>
+ *
+ * <p>Two selective extensions prune moves alpha-beta cannot, trading a little accuracy for depth. Both are
+ * on by default, can be switched off, and count what they did so their effect can be measured:
+ * <ul>
+ *     <li>Null-move pruning: the side to move passes, and the opponent gets a reduced search. If the
+ *     position is still at least beta, a real move would be too, and the node is cut off. This fails in
+ *     zugzwang, where passing would be the best move, which is common when a side has only pawns left:
+ *     there the cut-off is only taken once a reduced normal search confirms it.</li>
+ *     <li>Late-move reductions: quiet moves late in the order rarely turn out best, so they are searched
+ *     less deep, the more so the later they come and the deeper the node. One that scores above alpha
+ *     all the same is searched again at full depth.</li>
+ * </ul>
+ * Neither prunes at the root, in check, or when it would hide a mate.</p>
+ *
+ * <p>Several searches can run at once on one shared transposition table, see {@link LazySmpSearch}.</p>
+ */
+public class AlphaBeta implements MoveStrategy {
+    // above any evaluation, and safe to negate
+    static final int INFINITY = 1_000_000;
+    // deepest iteration a time-limited search may reach
+    public static final int MAX_DEPTH = 64;
+    // how many nodes are searched between two looks at the clock
+    private static final int TIME_CHECK_INTERVAL = 1024;
+    // positional swing a capture may bring on top of the captured material, for delta pruning
+    private static final int DELTA_MARGIN = 200;
+    private static final int PAWN_VALUE = PieceType.PAWN.getPieceValue();
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    // half width of the first aspiration window; every failure widens it fourfold
+    private static final int ASPIRATION_WINDOW = 50;
+    // move generation stages of an interior node
+    private static final int HASH_MOVE_STAGE = 0;
+    private static final int CAPTURE_STAGE = 1;
+    private static final int QUIET_STAGE = 2;
+    // no evaluation reaches this without a checkmate in it
+    private static final int MATE_THRESHOLD = 8000;
+    // null-move pruning: minimum depth, and the reduction below and from NULL_MOVE_DEEP_DEPTH
+    private static final int NULL_MOVE_MIN_DEPTH = 3;
+    private static final int NULL_MOVE_REDUCTION = 2;
+    private static final int NULL_MOVE_DEEP_DEPTH = 6;
+    private static final int NULL_MOVE_DEEP_REDUCTION = 3;
+    // late-move reductions: minimum depth, and how many moves of a node are always searched in full
+    private static final int LATE_MOVE_MIN_DEPTH = 3;
+    private static final int LATE_MOVE_FULL_DEPTH_MOVES = 3;
+    // [depth][move index]: grows with the logarithm of both, 1 for the first reduced moves
+    private static final int[][] LATE_MOVE_REDUCTIONS = new int[MAX_DEPTH + 1][SearchBoard.MAX_MOVES];
+    static {
+        for (int depth = 1; depth <= MAX_DEPTH; depth++) {
+            for (int index = 1; index < SearchBoard.MAX_MOVES; index++) {
+                LATE_MOVE_REDUCTIONS[depth][index] = Math.max(1, (int) (0.5 + Math.log(depth) * Math.log(index) / 2.5));
+            }
+        }
+    }
+
+    private final BoardEvaluator evaluator;
+    private final int searchDepth;
+    private final TimeBudget timeBudget;
+    private final TranspositionTable transpositionTable;
+    private final MoveOrderer moveOrderer;
+    // One reusable move buffer per ply, indexed by distance from the root
+    private final int[][] moveBuffers;
+    // the root moves in generation order, the order MiniMax breaks ties in
+    private final int[] rootGenerationOrder;
+    // triangular PV array: pvTable[ply][ply..pvLength[ply]) is the best line found from ply
+    private final int[][] pvTable;
+    private final int[] pvLength;
+    // the line of the last completed iteration, kept when a later iteration is abandoned
+    private final int[] principalVariation;
+    private int principalVariationLength;
+    private final boolean principalVariationSearch;
+    private boolean quiescenceEnabled = true;
+    private boolean nullMovePruningEnabled = true;
+    private boolean lateMoveReductionsEnabled = true;
+    private long nodesSearched;
+    private long quiescenceNodesSearched;
+    private long nullMoveCutoffs;
+    private long lateMoveReductions;
+    private long lateMoveResearches;
+    private int completedDepth;
+    private long hardDeadline;
+    private boolean aborted;
+    private int bestMove;
+    private int bestScore;
+    // set when this is one of several searches sharing a table, see configureSharedSearch
+    private AtomicBoolean stopSignal;
+    private int depthOffset;
+    private boolean logging = true;
+
+    /**
+     * A search to a fixed depth, however long it takes, with a transposition table of its own.
+     */
+    public AlphaBeta(final int searchDepth) {
+        this(searchDepth, TimeBudget.UNLIMITED, new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB));
+    }
+
+    /**
+     * A search that deepens up to a maximum depth for as long as the time budget allows.
+     *
+     * @param transpositionTable the table to use, which may be shared with earlier searches
+     */
+    public AlphaBeta(final int maxDepth, final TimeBudget timeBudget, final TranspositionTable transpositionTable) {
+        this(maxDepth, timeBudget, transpositionTable, false);
+    }
+
+    /**
+     * @param principalVariationSearch whether to search with zero-width windows and aspiration windows
+     */
+    protected AlphaBeta(final int maxDepth, final TimeBudget timeBudget, final TranspositionTable transpositionTable,
+                        final boolean principalVariationSearch) {
+        this.principalVariationSearch = principalVariationSearch;
+        this.evaluator = new StandardBoardEvaluator();
+        this.searchDepth = maxDepth;
+        this.timeBudget = timeBudget;
+        this.transpositionTable = transpositionTable;
+        this.moveOrderer = new MoveOrderer();
+        this.moveBuffers = new int[SearchBoard.MAX_PLY][SearchBoard.MAX_MOVES];
+        this.rootGenerationOrder = new int[SearchBoard.MAX_MOVES];
+        this.pvTable = new int[SearchBoard.MAX_PLY][SearchBoard.MAX_PLY];
+        this.pvLength = new int[SearchBoard.MAX_PLY];
+        this.principalVariation = new int[SearchBoard.MAX_PLY];
+    }
+
+    @Override
+    public String toString() {
+        return "AlphaBeta";
+    }
+
+    /**
+     * Switches the quiescence search at the horizon on (the default) or off.
+     */
+    public void setQuiescenceEnabled(final boolean quiescenceEnabled) {
+        this.quiescenceEnabled = quiescenceEnabled;
+    }
+
+    /**
+     * Switches null-move pruning on (the default) or off.
+     */
+    public void setNullMovePruningEnabled(final boolean nullMovePruningEnabled) {
+        this.nullMovePruningEnabled = nullMovePruningEnabled;
+    }
+
+    /**
+     * Switches late-move reductions on (the default) or off.
+     */
+    public void setLateMoveReductionsEnabled(final boolean lateMoveReductionsEnabled) {
+        this.lateMoveReductionsEnabled = lateMoveReductionsEnabled;
+    }
+
+    /**
+     * Makes this search one of several running at once on a shared transposition table. The owner of
+     * the shared search starts a new table generation itself, so this search leaves it alone.
+     *
+     * @param stopSignal raised by the owner to abort this search; the last completed iteration stands
+     * @param depthOffset how many plies deeper than usual the first iteration starts
+     * @param logging whether to print the progress of the search
+     */
+    void configureSharedSearch(final AtomicBoolean stopSignal, final int depthOffset, final boolean logging) {
+        this.stopSignal = stopSignal;
+        this.depthOffset = depthOffset;
+        this.logging = logging;
+    }
+
+    /**
+     * @return the packed best move of the last search, or {@link PackedMove#NO_MOVE}
+     */
+    int getBestMove() {
+        return this.bestMove;
+    }
+
+    /**
+     * @return the score of the best move of the last search, for the side to move
+     */
+    int getBestScore() {
+        return this.bestScore;
+    }
+
+    /**
+     * @return the number of positions visited by the last search, quiescence nodes included
+     */
+    public long getNodesSearched() {
+        return this.nodesSearched;
+    }
+
+    /**
+     * @return the number of positions the last search visited in quiescence search
+     */
+    public long getQuiescenceNodesSearched() {
+        return this.quiescenceNodesSearched;
+    }
+
+    /**
+     * @return the number of nodes the last search cut off with a null move
+     */
+    public long getNullMoveCutoffs() {
+        return this.nullMoveCutoffs;
+    }
+
+    /**
+     * @return the number of moves the last search searched at reduced depth
+     */
+    public long getLateMoveReductions() {
+        return this.lateMoveReductions;
+    }
+
+    /**
+     * @return the number of reduced moves the last search had to search again at full depth
+     */
+    public long getLateMoveResearches() {
+        return this.lateMoveResearches;
+    }
+
+    /**
+     * @return the depth of the last iteration the last search completed
+     */
+    public int getCompletedDepth() {
+        return this.completedDepth;
+    }
+
+    /**
+     * @return the number of moves in the principal variation of the last completed iteration
+     */
+    public int getPrincipalVariationLength() {
+        return this.principalVariationLength;
+    }
+
+    /**
+     * @param index the position in the line, 0 being the move to play
+     * @return the packed move at that position of the principal variation
+     */
+    public int getPrincipalVariationMove(final int index) {
+        if (index < 0 || index >= this.principalVariationLength) {
+            throw new IndexOutOfBoundsException("Principal variation move " + index + " of " + this.principalVariationLength);
+        }
+        return this.principalVariation[index];
+    }
+
+    /**
+     * @return the principal variation in coordinate notation, e.g. "e2e4 e7e5 g1f3"
+     */
+    public String getPrincipalVariationString() {
+        final StringBuilder line = new StringBuilder();
+        for (int i = 0; i < this.principalVariationLength; i++) {
+            if (i > 0) {
+                line.append(' ');
+            }
+            line.append(PackedMove.toString(this.principalVariation[i]));
+        }
+        return line.toString();
+    }
+
+    @Override
+    public Move execute(final Board board) {
+        final long startTime = System.currentTimeMillis();
+        this.nodesSearched = 0;
+        this.quiescenceNodesSearched = 0;
+        this.nullMoveCutoffs = 0;
+        this.lateMoveReductions = 0;
+        this.lateMoveResearches = 0;
+        this.completedDepth = 0;
+        this.principalVariationLength = 0;
+        this.aborted = false;
+        this.hardDeadline = this.timeBudget.isUnlimited() ? Long.MAX_VALUE : startTime + this.timeBudget.getHardLimitMillis();
+        if (this.stopSignal == null) {
+            this.transpositionTable.newSearch();
+        }
+        this.moveOrderer.newSearch();
+
+        final SearchBoard searchBoard = new SearchBoard(board);
+        final boolean isWhite = searchBoard.getSideToMove().isWhite();
+        int bestMove = PackedMove.NO_MOVE;
+        int bestScore = -INFINITY;
+
+        log("Thinking with depth " + this.searchDepth + " (" + this.timeBudget + ")");
+        for (int depth = 1 + this.depthOffset; depth <= this.searchDepth; depth++) {
+            final int[] result = this.principalVariationSearch && this.completedDepth > 0 ?
+                    searchAspirationWindows(searchBoard, depth, bestScore) :
+                    searchRoot(searchBoard, depth, -INFINITY, INFINITY);
+            if (this.aborted) {
+                break; // a partial iteration may have missed the best reply, keep the previous one
+            }
+            bestMove = result[0];
+            bestScore = result[1];
+            this.completedDepth = depth;
+            this.principalVariationLength = this.pvLength[0];
+            System.arraycopy(this.pvTable[0], 0, this.principalVariation, 0, this.principalVariationLength);
+            this.transpositionTable.store(searchBoard.getZobristKey(), depth, TranspositionTable.EXACT, bestScore, bestMove);
+
+            final long elapsed = System.currentTimeMillis() - startTime;
+            log("  depth " + depth + ": " + PackedMove.toString(bestMove) + " Score: " +
+                    (isWhite ? bestScore : -bestScore) + " Nodes: " + this.nodesSearched +
+                    " (quiescence " + this.quiescenceNodesSearched + ") Time: " + elapsed + "ms" +
+                    " PV: " + getPrincipalVariationString());
+            // a forced move needs no deeper look, and the next iteration would not finish in time anyway
+            if (bestMove == PackedMove.NO_MOVE || searchBoard.countMoves(searchBoard.getSideToMove()) == 1 ||
+                    elapsed >= this.timeBudget.getSoftLimitMillis()) {
+                break;
+            }
+        }
+
+        this.bestMove = bestMove;
+        this.bestScore = bestScore;
+        final Move selectedMove = bestMove != PackedMove.NO_MOVE ?
+                Move.MoveFactory.createMove(board, bestMove) : null;
+
+        final long executionTime = System.currentTimeMillis() - startTime;
+        // report the score from white's point of view, like MiniMax
+        log("AI selected move: " + selectedMove + " Score: " +
+                (isWhite ? bestScore : -bestScore) +
+                " Depth: " + this.completedDepth +
+                " Nodes: " + this.nodesSearched +
+                " (quiescence " + this.quiescenceNodesSearched + ")" +
+                " Null-move cut-offs: " + this.nullMoveCutoffs +
+                " Reductions: " + this.lateMoveReductions + " (re-searched " + this.lateMoveResearches + ")" +
+                " Time: " + executionTime + "ms");
+
+        return selectedMove;
+    }
+
+    /**
+     * One iteration in a window around the previous iteration's score. A score on or outside the window
+     * is only a bound, so the window is widened on that side and the iteration searched again.
+     *
+     * @return the best packed move and its exact score for the side to move
+     */
+    private int[] searchAspirationWindows(final SearchBoard searchBoard, final int depth, final int previousScore) {
+        int window = ASPIRATION_WINDOW;
+        int alpha = Math.max(-INFINITY, previousScore - window);
+        int beta = Math.min(INFINITY, previousScore + window);
+        while (true) {
+            final int[] result = searchRoot(searchBoard, depth, alpha, beta);
+            if (this.aborted) {
+                return result;
+            }
+            final int score = result[1];
+            if (score <= alpha && alpha > -INFINITY) {
+                window *= 4;
+                alpha = Math.max(-INFINITY, score - window);
+            } else if (score >= beta && beta < INFINITY) {
+                window *= 4;
+                beta = Math.min(INFINITY, score + window);
+            } else {
+                return result;
+            }
+        }
+    }
+
+    /**
+     * One iteration: searches every root move to the given depth.
+     *
+     * @param alpha the lower end of the root window
+     * @param beta the upper end of the root window; the iteration stops at the first move reaching it
+     * @return the best packed move and its score for the side to move
+     */
+    private int[] searchRoot(final SearchBoard searchBoard, final int depth, int alpha, final int beta) {
+        int bestMove = PackedMove.NO_MOVE;
+        int bestScore = -INFINITY;
+        int bestGenerationIndex = Integer.MAX_VALUE;
+        this.pvLength[0] = 0;
+
+        final int[] moves = this.moveBuffers[0];
+        final int numMoves = searchBoard.generateMoves(moves);
+        System.arraycopy(moves, 0, this.rootGenerationOrder, 0, numMoves);
+        // the best move of the previous iteration is stored under the root key
+        final long entry = this.transpositionTable.probe(searchBoard.getZobristKey());
+        this.moveOrderer.scoreMoves(moves, numMoves, 0, searchBoard.getSideToMove().ordinal(),
+                entry != 0 ? TranspositionTable.getMove(entry) : PackedMove.NO_MOVE);
+
+        for (int i = 0; i < numMoves; i++) {
+            final int move = this.moveOrderer.nextMove(moves, i, numMoves, 0);
+            final int generationIndex = generationIndexOf(move, numMoves);
+            // a move generated before the best one wins a tie, so it must see a tie as an exact score
+            final int windowAlpha = generationIndex < bestGenerationIndex ? alpha - 1 : alpha;
+            searchBoard.makeMove(move);
+            final int score = searchChild(searchBoard, depth, 0, windowAlpha, beta, i == 0, 0);
+            searchBoard.unmakeMove();
+            if (this.aborted) {
+                break;
+            }
+
+            // better, or as good and generated earlier: the move MiniMax would keep
+            if (score > bestScore || (score == bestScore && generationIndex < bestGenerationIndex)) {
+                bestScore = score;
+                bestMove = move;
+                bestGenerationIndex = generationIndex;
+                alpha = Math.max(alpha, score);
+                updatePrincipalVariation(0, move);
+                if (score >= beta) {
+                    break; // above the aspiration window: the caller widens it and searches again
+                }
+            }
+        }
+        return new int[]{bestMove, bestScore};
+    }
+
+    private int generationIndexOf(final int move, final int numMoves) {
+        for (int i = 0; i < numMoves; i++) {
+            if (this.rootGenerationOrder[i] == move) {
+                return i;
+            }
+        }
+        return numMoves;
+    }
+
+    /**
+     * @param board the position, with the side to search for to move
+     * @param depth the remaining depth
+     * @param ply the distance from the root
+     * @param alpha the score the side to move is already guaranteed elsewhere
+     * @param beta the score the opponent is already guaranteed elsewhere
+     * @param nullMoveAllowed false right after a null move, so two passes in a row do not cancel out
+     * @return the score for the side to move; at most alpha if every move fails low, at least beta on a cut-off.
+     * Meaningless once the search is aborted
+     */
+    private int negamax(final SearchBoard board, final int depth, final int ply, int alpha, final int beta,
+                        final boolean nullMoveAllowed) {
+        this.pvLength[ply] = ply;
+        if (depth == 0 && this.quiescenceEnabled) {
+            return quiescence(board, ply, alpha, beta);
+        }
+        if (countNodeAndCheckTime()) {
+            return 0;
+        }
+        if (depth == 0) {
+            return evaluate(board, depth);
+        }
+
+        // a result at least as deep settles the node, or bounds it tightly enough to cut it off
+        final long key = board.getZobristKey();
+        final long entry = this.transpositionTable.probe(key);
+        if (entry != 0 && TranspositionTable.getDepth(entry) >= depth) {
+            final int storedScore = TranspositionTable.getScore(entry);
+            switch (TranspositionTable.getBound(entry)) {
+                case TranspositionTable.EXACT:
+                    return storedScore;
+                case TranspositionTable.LOWER_BOUND:
+                    if (storedScore >= beta) {
+                        return storedScore;
+                    }
+                    break;
+                case TranspositionTable.UPPER_BOUND:
+                    if (storedScore <= alpha) {
+                        return storedScore;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        final boolean inCheck = board.isInCheck(board.getSideToMove());
+        if (nullMoveAllowed && !inCheck && this.nullMovePruningEnabled && depth >= NULL_MOVE_MIN_DEPTH &&
+                Math.abs(beta) < MATE_THRESHOLD) {
+            final int nullMoveScore = searchNullMove(board, depth, ply, beta);
+            if (this.aborted) {
+                return 0;
+            }
+            if (nullMoveScore >= beta) {
+                this.nullMoveCutoffs++;
+                return nullMoveScore;
+            }
+        }
+
+        // the stored move is worth trying first even when the entry was too shallow to settle the node
+        final int side = board.getSideToMove().ordinal();
+        final int hashMove = entry != 0 ? TranspositionTable.getMove(entry) : PackedMove.NO_MOVE;
+        final boolean hashMoveLegal = board.isLegalMove(hashMove);
+        final int[] moves = this.moveBuffers[ply];
+        final int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = PackedMove.NO_MOVE;
+        int movesSearched = 0;
+        // a stage is only generated when the ones before it did not cut the node off
+        for (int stage = HASH_MOVE_STAGE; stage <= QUIET_STAGE && bestScore < beta; stage++) {
+            final int numMoves;
+            if (stage == HASH_MOVE_STAGE) {
+                moves[0] = hashMove;
+                numMoves = hashMoveLegal ? 1 : 0;
+            } else {
+                numMoves = stage == CAPTURE_STAGE ? board.generateCaptures(moves) : board.generateQuietMoves(moves);
+                this.moveOrderer.scoreMoves(moves, numMoves, ply, side, PackedMove.NO_MOVE);
+            }
+
+            for (int i = 0; i < numMoves; i++) {
+                final int move = stage == HASH_MOVE_STAGE ? moves[0] : this.moveOrderer.nextMove(moves, i, numMoves, ply);
+                if (stage != HASH_MOVE_STAGE && hashMoveLegal && move == hashMove) {
+                    continue; // searched in the first stage
+                }
+                board.makeMove(move);
+                final int reduction = lateMoveReduction(board, depth, ply, movesSearched, move, inCheck);
+                final int score = searchChild(board, depth, ply, alpha, beta, movesSearched == 0, reduction);
+                board.unmakeMove();
+                if (this.aborted) {
+                    return 0;
+                }
+                movesSearched++;
+
+                if (score > bestScore) {
+                    bestScore = score;
+                    if (score > alpha) {
+                        alpha = score;
+                        bestMove = move;
+                        updatePrincipalVariation(ply, move);
+                        if (alpha >= beta) {
+                            this.moveOrderer.recordCutoff(move, ply, side, depth);
+                            break; // the opponent will not allow this position
+                        }
+                    }
+                }
+            }
+        }
+        // checkmate or stalemate
+        if (movesSearched == 0) {
+            return evaluate(board, depth);
+        }
+
+        final int bound = bestScore >= beta ? TranspositionTable.LOWER_BOUND :
+                bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        this.transpositionTable.store(key, depth, bound, bestScore, bestMove);
+        return bestScore;
+    }
+
+    /**
+     * Passes the turn and searches the opponent's reply at reduced depth with a zero-width window at beta.
+     * A side with only pawns may be in zugzwang, so its null-move result is checked by a normal search
+     * at the same reduced depth, without null moves, before it may cut the node off.
+     *
+     * @return the score for the side to move; at least beta when the node may be cut off
+     */
+    private int searchNullMove(final SearchBoard board, final int depth, final int ply, final int beta) {
+        final int reduction = depth >= NULL_MOVE_DEEP_DEPTH ? NULL_MOVE_DEEP_REDUCTION : NULL_MOVE_REDUCTION;
+        board.makeNullMove();
+        final int score = -negamax(board, depth - 1 - reduction, ply + 1, -beta, -beta + 1, false);
+        board.unmakeNullMove();
+        if (score < beta || this.aborted) {
+            return score;
+        }
+        if (board.getNonPawnMaterial(board.getSideToMove()) == 0) {
+            final int verifiedScore = negamax(board, depth - reduction, ply, beta - 1, beta, false);
+            if (verifiedScore < beta) {
+                return verifiedScore;
+            }
+        }
+        // the null move proves a bound, not a mate
+        return score >= MATE_THRESHOLD ? beta : score;
+    }
+
+    /**
+     * How much shallower to search a move, already made on the board: late quiet moves are reduced,
+     * but not those of a node in check, nor captures, promotions, killers or moves that give check.
+     *
+     * @param index the position of the move in the node's move order
+     * @param inCheck whether the side that played the move was in check before it
+     * @return the reduction in plies, 0 for a full-depth search
+     */
+    private int lateMoveReduction(final SearchBoard board, final int depth, final int ply, final int index,
+                                  final int move, final boolean inCheck) {
+        if (!this.lateMoveReductionsEnabled || depth < LATE_MOVE_MIN_DEPTH || index < LATE_MOVE_FULL_DEPTH_MOVES ||
+                inCheck || PackedMove.isCapture(move) || PackedMove.isPromotion(move) ||
+                this.moveOrderer.isKiller(move, ply) || board.isInCheck(board.getSideToMove())) {
+            return 0;
+        }
+        // leave the reduced search at least one ply
+        return Math.min(LATE_MOVE_REDUCTIONS[Math.min(depth, MAX_DEPTH)][index], depth - 2);
+    }
+
+    /**
+     * Searches the position after a move, for the side that played it. Under principal variation search
+     * every move but the first is first tried with a zero-width window just above alpha: it is only
+     * searched with the full window when that probe says it might be better after all. A reduced move is
+     * first searched at reduced depth with that zero-width window, and only searched in full when it
+     * scores above alpha.
+     *
+     * @param depth the remaining depth of the parent
+     * @param ply the distance of the parent from the root
+     * @param firstMove whether this is the first move of the parent, expected to be its best
+     * @param reduction how many plies shallower to try the move first, see {@link #lateMoveReduction}
+     * @return the score for the side that played the move
+     */
+    private int searchChild(final SearchBoard board, final int depth, final int ply, final int alpha, final int beta,
+                            final boolean firstMove, final int reduction) {
+        if (reduction > 0) {
+            this.lateMoveReductions++;
+            final int score = -negamax(board, depth - 1 - reduction, ply + 1, -alpha - 1, -alpha, true);
+            if (score <= alpha || this.aborted) {
+                return score;
+            }
+            this.lateMoveResearches++;
+        }
+        if (!this.principalVariationSearch || firstMove || beta - alpha <= 1) {
+            return -negamax(board, depth - 1, ply + 1, -beta, -alpha, true);
+        }
+        final int score = -negamax(board, depth - 1, ply + 1, -alpha - 1, -alpha, true);
+        if (score > alpha && score < beta && !this.aborted) {
+            return -negamax(board, depth - 1, ply + 1, -beta, -alpha, true);
+        }
+        return score;
+    }
+
+    // a new best move at a ply: it, followed by the best line found after it
+    private void updatePrincipalVariation(final int ply, final int move) {
+        final int[] line = this.pvTable[ply];
+        line[ply] = move;
+        // every search of the child starts by resetting its row, so its length is current
+        final int childLength = this.pvLength[ply + 1];
+        System.arraycopy(this.pvTable[ply + 1], ply + 1, line, ply + 1, childLength - (ply + 1));
+        this.pvLength[ply] = childLength;
+    }
+
+    /**
+     * Searches captures and promotions only, until the position is quiet.
+     *
+     * @return the score for the side to move, fail-soft like {@link #negamax}
+     */
+    private int quiescence(final SearchBoard board, final int ply, int alpha, final int beta) {
+        this.pvLength[ply] = ply;
+        this.quiescenceNodesSearched++;
+        if (countNodeAndCheckTime()) {
+            return 0;
+        }
+        if (ply >= SearchBoard.MAX_PLY - 1) {
+            return evaluate(board, 0);
+        }
+
+        // in check there is no standing pat: every evasion is searched, and none means mate
+        final boolean inCheck = board.isInCheck(board.getSideToMove());
+        final int[] moves = this.moveBuffers[ply];
+        final int numMoves = inCheck ? board.generateMoves(moves) : board.generateCaptures(moves);
+        if (inCheck && numMoves == 0) {
+            return evaluate(board, 0);
+        }
+
+        final int standPat = inCheck ? -INFINITY : evaluate(board, 0);
+        if (standPat >= beta) {
+            return standPat;
+        }
+        alpha = Math.max(alpha, standPat);
+
+        this.moveOrderer.scoreMoves(moves, numMoves, ply, board.getSideToMove().ordinal(), PackedMove.NO_MOVE);
+        int bestScore = standPat;
+        for (int i = 0; i < numMoves; i++) {
+            final int move = this.moveOrderer.nextMove(moves, i, numMoves, ply);
+            // delta pruning: even winning the material outright would leave this move below alpha
+            if (!inCheck && standPat + materialGain(move) + DELTA_MARGIN <= alpha) {
+                continue;
+            }
+            board.makeMove(move);
+            final int score = -quiescence(board, ply + 1, -beta, -alpha);
+            board.unmakeMove();
+            if (this.aborted) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    private static int materialGain(final int move) {
+        int gain = PackedMove.isCapture(move) ? PIECE_TYPES[PackedMove.getCapturedType(move)].getPieceValue() : 0;
+        if (PackedMove.isPromotion(move)) {
+            gain += PIECE_TYPES[PackedMove.getPromotionType(move)].getPieceValue() - PAWN_VALUE;
+        }
+        return gain;
+    }
+
+    /**
+     * Counts a node and, every {@link #TIME_CHECK_INTERVAL} nodes, checks the hard limit and the stop signal.
+     *
+     * @return whether the search has been aborted
+     */
+    private boolean countNodeAndCheckTime() {
+        this.nodesSearched++;
+        if ((this.nodesSearched % TIME_CHECK_INTERVAL) == 0) {
+            if (this.stopSignal != null && this.stopSignal.get()) {
+                this.aborted = true;
+            // depth 1 is never aborted by the clock (completedDepth is still 0), so there is always a move to play
+            } else if (this.completedDepth > 0 && System.currentTimeMillis() >= this.hardDeadline) {
+                this.aborted = true;
+            }
+        }
+        return this.aborted;
+    }
+
+    private void log(final String message) {
+        if (this.logging) {
+            System.out.println(message);
+        }
+    }
+
+    // the evaluator scores for white; negamax wants the score of the side to move
+    private int evaluate(final SearchBoard board, final int depth) {
+        final int score = this.evaluator.evaluate(board, depth);
+        return board.getSideToMove().isWhite() ? score : -score;
+    }
+}
@@ -9,4 +9,7 @@ public interface BoardEvaluator {
     // negative = black
     int evaluate (Board board, int depth);
 
+    // same scoring for the mutable board used inside the search
+    int evaluate (SearchBoard board, int depth);
+
 }
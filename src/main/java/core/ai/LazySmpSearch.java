@@ -0,0 +1,140 @@
+package core.ai;
+
+import core.Move;
+import core.PackedMove;
+import entities.Board;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lazy SMP: several {@link AlphaBeta} searches of the same position at once, one per thread, that
+ * share nothing but the {@link TranspositionTable}.
+ *
+ * <p>The threads do not split the tree between them. They all run the same iterative deepening, but
+ * every other helper starts one ply deeper, so they soon reach the same positions at different times:
+ * whichever thread gets to a position first stores its result, and the others find it in the table
+ * instead of searching it again. The table is lock-free, so this costs no synchronisation.</p>
+ *
+ * <p>The main search runs on the calling thread with the time budget; the helpers run without one
+ * and are stopped as soon as the main search returns. The move of the deepest iteration any thread
+ * completed is played, the main search's when a helper got no deeper.</p>
+ */
+public final class LazySmpSearch implements MoveStrategy {
+    public static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors();
+
+    private final AlphaBeta[] searches;
+    private final TranspositionTable transpositionTable;
+    private final AtomicBoolean stopSignal = new AtomicBoolean();
+    private long nodesSearched;
+    private int completedDepth;
+
+    /**
+     * A search to a fixed depth, however long it takes, with a transposition table of its own.
+     */
+    public LazySmpSearch(final int searchDepth, final int threads) {
+        this(searchDepth, TimeBudget.UNLIMITED, new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB), threads, true);
+    }
+
+    /**
+     * @param maxDepth the deepest iteration to search
+     * @param timeBudget the budget of the main search; the helpers stop with it
+     * @param transpositionTable the table all threads share, which may be shared with earlier searches
+     * @param threads the number of threads to search with, the calling thread included
+     * @param principalVariationSearch whether each thread runs a {@link PrincipalVariationSearch}
+     */
+    public LazySmpSearch(final int maxDepth, final TimeBudget timeBudget, final TranspositionTable transpositionTable,
+                         final int threads, final boolean principalVariationSearch) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Lazy SMP needs at least one thread, got " + threads);
+        }
+        this.transpositionTable = transpositionTable;
+        this.searches = new AlphaBeta[threads];
+        for (int i = 0; i < threads; i++) {
+            final TimeBudget budget = i == 0 ? timeBudget : TimeBudget.UNLIMITED;
+            this.searches[i] = principalVariationSearch ?
+                    new PrincipalVariationSearch(maxDepth, budget, transpositionTable) :
+                    new AlphaBeta(maxDepth, budget, transpositionTable);
+            // only the main search reports its progress
+            this.searches[i].configureSharedSearch(this.stopSignal, i % 2, i == 0);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LazySmpSearch";
+    }
+
+    /**
+     * @return the number of threads searching
+     */
+    public int getThreads() {
+        return this.searches.length;
+    }
+
+    /**
+     * @return the number of positions all threads together visited in the last search
+     */
+    public long getNodesSearched() {
+        return this.nodesSearched;
+    }
+
+    /**
+     * @return the deepest iteration a thread completed in the last search
+     */
+    public int getCompletedDepth() {
+        return this.completedDepth;
+    }
+
+    @Override
+    public Move execute(final Board board) {
+        final long startTime = System.currentTimeMillis();
+        this.transpositionTable.newSearch();
+        this.stopSignal.set(false);
+
+        final Thread[] helpers = new Thread[this.searches.length - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            final AlphaBeta helper = this.searches[i + 1];
+            helpers[i] = new Thread(() -> helper.execute(board), "lazy-smp-helper-" + (i + 1));
+            helpers[i].setDaemon(true);
+            helpers[i].start();
+        }
+
+        this.searches[0].execute(board);
+        this.stopSignal.set(true);
+        // the helpers stop within a few nodes; their results can only be read once they have
+        boolean interrupted = false;
+        for (final Thread helper : helpers) {
+            while (helper.isAlive()) {
+                try {
+                    helper.join();
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        AlphaBeta deepest = this.searches[0];
+        this.nodesSearched = 0;
+        for (final AlphaBeta search : this.searches) {
+            this.nodesSearched += search.getNodesSearched();
+            if (search.getCompletedDepth() > deepest.getCompletedDepth() && search.getBestMove() != PackedMove.NO_MOVE) {
+                deepest = search;
+            }
+        }
+        this.completedDepth = deepest.getCompletedDepth();
+
+        final int bestMove = deepest.getBestMove();
+        final Move selectedMove = bestMove != PackedMove.NO_MOVE ? Move.MoveFactory.createMove(board, bestMove) : null;
+        final boolean isWhite = board.getCurrentPlayer().getAlliance().isWhite();
+        System.out.println("Lazy SMP selected move: " + selectedMove + " Score: " +
+                (isWhite ? deepest.getBestScore() : -deepest.getBestScore()) +
+                " Depth: " + this.completedDepth +
+                " Threads: " + this.searches.length +
+                " Nodes: " + this.nodesSearched +
+                " Time: " + (System.currentTimeMillis() - startTime) + "ms");
+        return selectedMove;
+    }
+}
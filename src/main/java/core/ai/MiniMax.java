@@ -1,16 +1,19 @@
 package core.ai;
 
 import core.Move;
+import core.PackedMove;
 import entities.Board;
-import entities.MoveTransition;
 
 public class MiniMax implements MoveStrategy {
     private final BoardEvaluator evaluator;
     private final int searchDepth;
+    // One reusable move buffer per ply, indexed by remaining depth
+    private final int[][] moveBuffers;
 
     public MiniMax(final int searchDepth) {
         this.evaluator = new StandardBoardEvaluator();
         this.searchDepth = searchDepth;
+        this.moveBuffers = new int[searchDepth + 1][SearchBoard.MAX_MOVES];
     }
 
     @Override
@@ -22,13 +25,18 @@ public class MiniMax implements MoveStrategy {
      * The Entry Point.
      * This method is called by the GameEngine. It looks at the current board
      * and kicks off the recursive chain to find the best move.
+     * The tree is searched on one mutable SearchBoard (make/unmake) with packed int moves
+     * written into per-ply buffers, and only the chosen move is turned back into a Move
+     * of the given board at the end.
      */
 
     @Override
     public Move execute(Board board) {
         final long startTIme = System.currentTimeMillis();
 
-        Move bestMove = null;
+        final SearchBoard searchBoard = new SearchBoard(board);
+        final boolean isWhite = searchBoard.getSideToMove().isWhite();
+        int bestMove = PackedMove.NO_MOVE;
 
         // initial values are set to the worst possible so any real move will be better
         int highestSeenValue = Integer.MIN_VALUE;
@@ -37,85 +45,97 @@ public class MiniMax implements MoveStrategy {
 
         System.out.println("Thinking with depth " + this.searchDepth);
         // now loop through available move
-        int numMoves = board.getCurrentPlayer().getLegalMoves().size();
-        int moveCounter = 1;
-
-        for (final Move move : board.getCurrentPlayer().getLegalMoves()) {
-
-            final MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-            //if the move is legal, analyze it
-            if (moveTransition.getMoveStatus().isDone()) {
-                // RECURSION
-                // if white, white move then white ask: 'what is the minimum score black can force?'
-                // vice versa with black
-                if (board.getCurrentPlayer().getAlliance().isWhite()) {
-                    currentValue = min(moveTransition.getTransitionBoard(), this.searchDepth - 1);
-                } else {
-                    currentValue = max(moveTransition.getTransitionBoard(), this.searchDepth - 1);
-                }
-                // compare the results
-                if (board.getCurrentPlayer().getAlliance().isWhite() && currentValue > highestSeenValue) {
-                    highestSeenValue = currentValue;
-                    bestMove = move;
-                } else if (board.getCurrentPlayer().getAlliance().isBlack() && currentValue < lowestSeenValue) {
-                    lowestSeenValue = currentValue;
-                    bestMove = move;
-                }
+        final int[] moves = this.moveBuffers[this.searchDepth];
+        final int numMoves = searchBoard.generateMoves(moves);
+
+        // every generated move is legal, so each one is analysed
+        for (int i = 0; i < numMoves; i++) {
+            final int move = moves[i];
+            searchBoard.makeMove(move);
+            // RECURSION
+            // if white, white move then white ask: 'what is the minimum score black can force?'
+            // vice versa with black
+            if (isWhite) {
+                currentValue = min(searchBoard, this.searchDepth - 1);
+            } else {
+                currentValue = max(searchBoard, this.searchDepth - 1);
+            }
+            searchBoard.unmakeMove();
+            // compare the results
+            if (isWhite && currentValue > highestSeenValue) {
+                highestSeenValue = currentValue;
+                bestMove = move;
+            } else if (!isWhite && currentValue < lowestSeenValue) {
+                lowestSeenValue = currentValue;
+                bestMove = move;
             }
-            moveCounter++;
         }
+
+        final Move selectedMove = bestMove != PackedMove.NO_MOVE ?
+                Move.MoveFactory.createMove(board, bestMove) : null;
+
         long executionTime = System.currentTimeMillis() - startTIme;
-        System.out.println("AI selected move: " + bestMove + " Score: " +
-                (board.getCurrentPlayer().getAlliance().isWhite() ? highestSeenValue : lowestSeenValue) +
+        System.out.println("AI selected move: " + selectedMove + " Score: " +
+                (isWhite ? highestSeenValue : lowestSeenValue) +
                 " Time: " + executionTime + "ms");
 
-        return bestMove;
+        return selectedMove;
     }
+
+    // the score min and max give a position without moves, for ParallelMiniMax's split nodes
+    int evaluate(final SearchBoard board, final int depth) {
+        return this.evaluator.evaluate(board, depth);
+    }
+
     // --- RECURSIVE HELPERS: MIN for BLACK ----
-    public int min(final Board board, final int depth) {
+    public int min(final SearchBoard board, final int depth) {
         // base: if we hit depth 0 or game over, stop looking and score the board
-        if (depth == 0 || isEndGameScenario(board)) {
-            return this.evaluator.evaluate(board,depth);
+        if (depth == 0) {
+            return this.evaluator.evaluate(board, depth);
         }
 
         int lowestSeenValue = Integer.MAX_VALUE;
-        for (final Move move : board.getCurrentPlayer().getLegalMoves()) {
-            final MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-            if (moveTransition.getMoveStatus().isDone()) {
-                // after black moves, calls max (white's turn)
-                int currentValue = max(moveTransition.getTransitionBoard(), depth - 1);
-
-                if (currentValue < lowestSeenValue) {
-                    lowestSeenValue = currentValue;
-                }
+        final int[] moves = this.moveBuffers[depth];
+        final int numMoves = board.generateMoves(moves);
+        // checkmate or stalemate: the count is memoised, so the evaluator does not generate again
+        if (numMoves == 0) {
+            return this.evaluator.evaluate(board, depth);
+        }
+        for (int i = 0; i < numMoves; i++) {
+            board.makeMove(moves[i]);
+            // after black moves, calls max (white's turn)
+            int currentValue = max(board, depth - 1);
+            board.unmakeMove();
+
+            if (currentValue < lowestSeenValue) {
+                lowestSeenValue = currentValue;
             }
         }
         return lowestSeenValue;
     }
 
     // --- RECURSIVE HELPERS: MAX for BLACK ----
-    public int max(final Board board, final int depth) {
+    public int max(final SearchBoard board, final int depth) {
         // base case
-        if (depth == 0 || isEndGameScenario(board)) {
-            return this.evaluator.evaluate(board,depth);
+        if (depth == 0) {
+            return this.evaluator.evaluate(board, depth);
         }
 
         int highestSeenValue = Integer.MIN_VALUE;
-        for (final Move move : board.getCurrentPlayer().getLegalMoves()) {
-            final MoveTransition moveTransition = board.getCurrentPlayer().makeMove(move);
-            if (moveTransition.getMoveStatus().isDone()) {
-                int currentValue = min(moveTransition.getTransitionBoard(), depth - 1);
-
-                if (currentValue > highestSeenValue) {
-                    highestSeenValue = currentValue;
-                }
+        final int[] moves = this.moveBuffers[depth];
+        final int numMoves = board.generateMoves(moves);
+        if (numMoves == 0) {
+            return this.evaluator.evaluate(board, depth);
+        }
+        for (int i = 0; i < numMoves; i++) {
+            board.makeMove(moves[i]);
+            int currentValue = min(board, depth - 1);
+            board.unmakeMove();
+
+            if (currentValue > highestSeenValue) {
+                highestSeenValue = currentValue;
             }
         }
         return highestSeenValue;
     }
-
-    private boolean isEndGameScenario(Board board) {
-        return board.getCurrentPlayer().isInCheckMate() ||
-                board.getCurrentPlayer().isInStaleMate();
-    }
 }
@@ -0,0 +1,165 @@
+package core.ai;
+
+import core.PackedMove;
+import entities.PieceType;
+
+/**
+ * Orders the moves of a search node so the best ones are tried first, which is what lets alpha-beta
+ * cut off most of the tree.
+ *
+ * <p>Order: the transposition table's best move, then captures and queen promotions by MVV-LVA (most
+ * valuable victim first, of equal victims the least valuable attacker first), then the two killer
+ * moves of the ply (quiet moves that caused a cut-off in a sibling node), then the remaining quiet
+ * moves by their history score (how often and how deep they caused cut-offs anywhere).</p>
+ *
+ * <p>Moves are scored into a per-ply buffer and picked one at a time by selection, so a node cut off
+ * after its first move does not pay for a full sort. All tables are allocated once per orderer.</p>
+ */
+public final class MoveOrderer {
+    private static final int HASH_MOVE_SCORE = Integer.MAX_VALUE;
+    private static final int CAPTURE_SCORE = 1 << 24;
+    private static final int FIRST_KILLER_SCORE = (1 << 23) + 1;
+    private static final int SECOND_KILLER_SCORE = 1 << 23;
+    // history scores are halved once one reaches this, staying below the killers
+    private static final int MAX_HISTORY_SCORE = 1 << 22;
+
+    private static final int[] PIECE_VALUES = new int[PieceType.values().length];
+    static {
+        for (final PieceType pieceType : PieceType.values()) {
+            PIECE_VALUES[pieceType.ordinal()] = pieceType.getPieceValue();
+        }
+    }
+
+    private final int[][] killers = new int[SearchBoard.MAX_PLY][2];
+    // butterfly table: [side to move][from][to]
+    private final int[][][] history = new int[2][64][64];
+    private final int[][] scores = new int[SearchBoard.MAX_PLY][SearchBoard.MAX_MOVES];
+
+    /**
+     * Prepares for a new search: the killers of the last one belong to other plies, and its history
+     * is halved so it informs the new search without outweighing it.
+     */
+    public void newSearch() {
+        for (final int[] plyKillers : this.killers) {
+            plyKillers[0] = PackedMove.NO_MOVE;
+            plyKillers[1] = PackedMove.NO_MOVE;
+        }
+        ageHistory();
+    }
+
+    /**
+     * Scores the moves of a node; call {@link #nextMove} to take them in order.
+     *
+     * @param moves the generated moves
+     * @param numMoves how many there are
+     * @param ply the distance from the root
+     * @param side the ordinal of the side to move
+     * @param hashMove the transposition table's best move, or {@link PackedMove#NO_MOVE}
+     */
+    public void scoreMoves(final int[] moves, final int numMoves, final int ply, final int side, final int hashMove) {
+        final int[] plyScores = this.scores[ply];
+        final int[] plyKillers = this.killers[ply];
+        final int[][] sideHistory = this.history[side];
+        for (int i = 0; i < numMoves; i++) {
+            final int move = moves[i];
+            if (move == hashMove) {
+                plyScores[i] = HASH_MOVE_SCORE;
+            } else if (isTactical(move)) {
+                plyScores[i] = CAPTURE_SCORE + mvvLva(move);
+            } else if (move == plyKillers[0]) {
+                plyScores[i] = FIRST_KILLER_SCORE;
+            } else if (move == plyKillers[1]) {
+                plyScores[i] = SECOND_KILLER_SCORE;
+            } else {
+                plyScores[i] = sideHistory[PackedMove.getFrom(move)][PackedMove.getTo(move)];
+            }
+        }
+    }
+
+    /**
+     * Moves the best scored of the moves not yet taken to {@code index} and returns it.
+     *
+     * @param moves the moves scored by {@link #scoreMoves} for this ply
+     * @param index how many moves have been taken so far
+     * @param numMoves how many moves there are
+     * @param ply the distance from the root
+     * @return the move now at {@code index}
+     */
+    public int nextMove(final int[] moves, final int index, final int numMoves, final int ply) {
+        final int[] plyScores = this.scores[ply];
+        int best = index;
+        for (int i = index + 1; i < numMoves; i++) {
+            if (plyScores[i] > plyScores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            final int move = moves[best];
+            moves[best] = moves[index];
+            moves[index] = move;
+            final int score = plyScores[best];
+            plyScores[best] = plyScores[index];
+            plyScores[index] = score;
+        }
+        return moves[index];
+    }
+
+    /**
+     * @return whether the move is one of the two killer moves of the ply
+     */
+    public boolean isKiller(final int move, final int ply) {
+        return move == this.killers[ply][0] || move == this.killers[ply][1];
+    }
+
+    /**
+     * Records a move that caused a beta cut-off. Only quiet moves are remembered: captures are
+     * ordered well by MVV-LVA already.
+     *
+     * @param move the move
+     * @param ply the distance from the root
+     * @param side the ordinal of the side that played it
+     * @param depth the remaining depth of the node; deep cut-offs weigh more
+     */
+    public void recordCutoff(final int move, final int ply, final int side, final int depth) {
+        if (isTactical(move)) {
+            return;
+        }
+        final int[] plyKillers = this.killers[ply];
+        if (plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+        final int[] fromHistory = this.history[side][PackedMove.getFrom(move)];
+        fromHistory[PackedMove.getTo(move)] += depth * depth;
+        if (fromHistory[PackedMove.getTo(move)] >= MAX_HISTORY_SCORE) {
+            ageHistory();
+        }
+    }
+
+    private void ageHistory() {
+        for (final int[][] sideHistory : this.history) {
+            for (final int[] fromHistory : sideHistory) {
+                for (int to = 0; to < fromHistory.length; to++) {
+                    fromHistory[to] >>= 1;
+                }
+            }
+        }
+    }
+
+    // captures and queen promotions: the moves that change the material balance most
+    private static boolean isTactical(final int move) {
+        return PackedMove.isCapture(move) || PackedMove.getPromotionType(move) == PieceType.QUEEN.ordinal();
+    }
+
+    private static int mvvLva(final int move) {
+        int score = 0;
+        if (PackedMove.isCapture(move)) {
+            // victim steps of 100 points are worth 10000 here, more than any attacker, king included
+            score += PIECE_VALUES[PackedMove.getCapturedType(move)] * 100 - PIECE_VALUES[PackedMove.getMovedType(move)];
+        }
+        if (PackedMove.isPromotion(move)) {
+            score += PIECE_VALUES[PackedMove.getPromotionType(move)] * 100;
+        }
+        return score;
+    }
+}
@@ -0,0 +1,155 @@
+package core.ai;
+
+import core.Move;
+import core.PackedMove;
+import entities.Board;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * {@link MiniMax} with the root moves searched in parallel on a {@link ForkJoinPool}.
+ *
+ * <p>Each root move is a task of its own. The given {@link Board} is immutable, so every task builds
+ * its own {@link SearchBoard} from it and plays its move there, and a {@link MiniMax} of its own runs
+ * the {@code min}/{@code max} recursion on it. Nothing mutable is shared. Positions with few root moves
+ * would leave workers idle, so each root task can split again into one task per reply (ply 2), which
+ * idle workers steal.</p>
+ *
+ * <p>The scores are MiniMax's own. They are compared in generation order with the same strict
+ * comparison, so the move chosen is exactly the serial one, whatever order the tasks finish in.</p>
+ */
+public final class ParallelMiniMax implements MoveStrategy {
+    // a root move's subtree must be at least this deep to be split at ply 2
+    private static final int MIN_SPLIT_DEPTH = 2;
+
+    private final int searchDepth;
+    private final ForkJoinPool pool;
+    private final boolean splitAtPlyTwo;
+
+    /**
+     * A search on the common pool, split at ply 2.
+     */
+    public ParallelMiniMax(final int searchDepth) {
+        this(searchDepth, ForkJoinPool.commonPool(), true);
+    }
+
+    /**
+     * @param pool the pool to search on
+     * @param splitAtPlyTwo whether root moves are split into one task per reply
+     */
+    public ParallelMiniMax(final int searchDepth, final ForkJoinPool pool, final boolean splitAtPlyTwo) {
+        this.searchDepth = searchDepth;
+        this.pool = pool;
+        this.splitAtPlyTwo = splitAtPlyTwo;
+    }
+
+    @Override
+    public String toString() {
+        return "ParallelMiniMax";
+    }
+
+    @Override
+    public Move execute(final Board board) {
+        final long startTime = System.currentTimeMillis();
+
+        final SearchBoard searchBoard = new SearchBoard(board);
+        final boolean isWhite = searchBoard.getSideToMove().isWhite();
+        final int[] moves = new int[SearchBoard.MAX_MOVES];
+        final int numMoves = searchBoard.generateMoves(moves);
+
+        System.out.println("Thinking with depth " + this.searchDepth + " on " + this.pool.getParallelism() + " threads");
+        final List<SubtreeTask> tasks = new ArrayList<>(numMoves);
+        for (int i = 0; i < numMoves; i++) {
+            tasks.add(new SubtreeTask(board, new int[]{moves[i]}, this.searchDepth - 1, this.splitAtPlyTwo));
+        }
+        this.pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                invokeAll(tasks);
+                return null;
+            }
+        });
+
+        // the serial root loop, over the finished scores
+        int bestMove = PackedMove.NO_MOVE;
+        int highestSeenValue = Integer.MIN_VALUE;
+        int lowestSeenValue = Integer.MAX_VALUE;
+        for (int i = 0; i < numMoves; i++) {
+            final int currentValue = tasks.get(i).join();
+            if (isWhite && currentValue > highestSeenValue) {
+                highestSeenValue = currentValue;
+                bestMove = moves[i];
+            } else if (!isWhite && currentValue < lowestSeenValue) {
+                lowestSeenValue = currentValue;
+                bestMove = moves[i];
+            }
+        }
+
+        final Move selectedMove = bestMove != PackedMove.NO_MOVE ?
+                Move.MoveFactory.createMove(board, bestMove) : null;
+
+        final long executionTime = System.currentTimeMillis() - startTime;
+        System.out.println("AI selected move: " + selectedMove + " Score: " +
+                (isWhite ? highestSeenValue : lowestSeenValue) +
+                " Time: " + executionTime + "ms");
+
+        return selectedMove;
+    }
+
+    /**
+     * The MiniMax score of the position after a line of moves from the root: {@code max} when white
+     * is to move there, {@code min} when black is.
+     */
+    private static final class SubtreeTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final Board root;
+        private final int[] line;
+        private final int depth;
+        private final boolean split;
+
+        private SubtreeTask(final Board root, final int[] line, final int depth, final boolean split) {
+            this.root = root;
+            this.line = line;
+            this.depth = depth;
+            this.split = split;
+        }
+
+        @Override
+        protected Integer compute() {
+            final SearchBoard board = new SearchBoard(this.root);
+            for (final int move : this.line) {
+                board.makeMove(move);
+            }
+            final boolean whiteToMove = board.getSideToMove().isWhite();
+            final MiniMax miniMax = new MiniMax(this.depth);
+            if (!this.split || this.depth < MIN_SPLIT_DEPTH) {
+                return whiteToMove ? miniMax.max(board, this.depth) : miniMax.min(board, this.depth);
+            }
+
+            // the same node as max/min, with each reply a task of its own
+            final int[] moves = new int[SearchBoard.MAX_MOVES];
+            final int numMoves = board.generateMoves(moves);
+            if (numMoves == 0) {
+                return miniMax.evaluate(board, this.depth);
+            }
+            final List<SubtreeTask> replies = new ArrayList<>(numMoves);
+            for (int i = 0; i < numMoves; i++) {
+                final int[] replyLine = new int[this.line.length + 1];
+                System.arraycopy(this.line, 0, replyLine, 0, this.line.length);
+                replyLine[this.line.length] = moves[i];
+                replies.add(new SubtreeTask(this.root, replyLine, this.depth - 1, false));
+            }
+            invokeAll(replies);
+            int bestValue = whiteToMove ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+            for (final SubtreeTask reply : replies) {
+                final int value = reply.join();
+                bestValue = whiteToMove ? Math.max(bestValue, value) : Math.min(bestValue, value);
+            }
+            return bestValue;
+        }
+    }
+}
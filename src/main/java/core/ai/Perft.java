@@ -0,0 +1,254 @@
+package core.ai;
+
+import core.Move;
+import core.PackedMove;
+import entities.Board;
+import utils.FenUtilities;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Performance test ("perft"): counts the leaf nodes of the legal move tree to a fixed depth.
+ *
+ * <p>The counts of the reference positions below are known exactly, so perft both verifies move
+ * generation (every special move included) and measures its speed in nodes per second. "Divide"
+ * reports the count below each root move, which pins a wrong total down to the move that causes it.</p>
+ *
+ * <p>The tree is walked on {@link SearchBoard}s with make/unmake. In bulk-counting mode the last ply is
+ * not played: the number of legal moves is the number of leaves. Root moves are counted in parallel
+ * on a {@link ForkJoinPool}, each on its own copy of the board.</p>
+ *
+ * <p>Run {@code main} to check the whole reference suite, optionally with a maximum depth argument.</p>
+ */
+public final class Perft {
+
+    /**
+     * A position with its known node counts, {@code nodes[d - 1]} being the count at depth d.
+     */
+    public static final class ReferencePosition {
+        private final String name;
+        private final String fen;
+        private final long[] nodes;
+
+        private ReferencePosition(final String name, final String fen, final long... nodes) {
+            this.name = name;
+            this.fen = fen;
+            this.nodes = nodes;
+        }
+
+        public String getName() { return this.name; }
+        public String getFen() { return this.fen; }
+        public int getMaxDepth() { return this.nodes.length; }
+        public long getExpectedNodes(final int depth) { return this.nodes[depth - 1]; }
+    }
+
+    /** The standard perft suite: the start position, Kiwipete and positions built around special moves. */
+    public static final List<ReferencePosition> REFERENCE_POSITIONS = List.of(
+            new ReferencePosition("Start position",
+                    "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                    20, 400, 8902, 197281, 4865609),
+            new ReferencePosition("Kiwipete (castling, pins, en passant)",
+                    "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                    48, 2039, 97862, 4085603),
+            new ReferencePosition("En passant and discovered checks",
+                    "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                    14, 191, 2812, 43238, 674624, 11030083),
+            new ReferencePosition("Promotions and castling rights",
+                    "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                    6, 264, 9467, 422333),
+            new ReferencePosition("Promotion with capture and check",
+                    "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                    44, 1486, 62379, 2103487),
+            new ReferencePosition("Symmetrical middlegame",
+                    "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                    46, 2079, 89890, 3894594)
+    );
+
+    /**
+     * Outcome of a perft run: the node count, the time it took and the per-root-move counts.
+     */
+    public static final class Result {
+        private final long nodes;
+        private final long elapsedNanos;
+        private final Map<String, Long> divide;
+
+        private Result(final long nodes, final long elapsedNanos, final Map<String, Long> divide) {
+            this.nodes = nodes;
+            this.elapsedNanos = elapsedNanos;
+            this.divide = divide;
+        }
+
+        public long getNodes() { return this.nodes; }
+        public long getElapsedNanos() { return this.elapsedNanos; }
+
+        /** Leaf nodes below each root move, keyed by the move in coordinate notation, e.g. "e2e4". */
+        public Map<String, Long> getDivide() { return this.divide; }
+
+        public long getNodesPerSecond() {
+            return this.elapsedNanos == 0 ? 0 : this.nodes * 1_000_000_000L / this.elapsedNanos;
+        }
+    }
+
+    private Perft() {
+        throw new RuntimeException("Cannot instantiate Perft");
+    }
+
+    /**
+     * Counts the leaf nodes to a depth on one thread.
+     *
+     * @param board the board to count from; left as it was
+     * @param depth the depth, at least 0
+     * @param bulkCounting whether to count the moves of the last ply instead of playing them
+     * @return the number of leaf nodes
+     */
+    public static long perft(final SearchBoard board, final int depth, final boolean bulkCounting) {
+        return perft(board, depth, bulkCounting, new int[depth + 1][SearchBoard.MAX_MOVES]);
+    }
+
+    private static long perft(final SearchBoard board, final int depth, final boolean bulkCounting,
+                              final int[][] moveBuffers) {
+        if (depth == 0) {
+            return 1;
+        }
+        final int[] moves = moveBuffers[depth];
+        final int numMoves = board.generateMoves(moves);
+        if (bulkCounting && depth == 1) {
+            return numMoves;
+        }
+        long nodes = 0;
+        for (int i = 0; i < numMoves; i++) {
+            board.makeMove(moves[i]);
+            nodes += perft(board, depth - 1, bulkCounting, moveBuffers);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts the leaf nodes to a depth through the immutable {@link Board} API: every node is a new
+     * board built by {@link Move#execute()}. Much slower than the {@link SearchBoard} walk, but it
+     * verifies the moves the GUI and players use.
+     *
+     * @param board the board to count from
+     * @param depth the depth, at least 0
+     * @return the number of leaf nodes
+     */
+    public static long perft(final Board board, final int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        if (depth == 1) {
+            return board.getCurrentPlayer().getLegalMoves().size();
+        }
+        long nodes = 0;
+        for (final Move move : board.getCurrentPlayer().getLegalMoves()) {
+            nodes += perft(move.execute(), depth - 1);
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts the leaf nodes to a depth, splitting the work by root move over a fork/join pool.
+     *
+     * @param board the board to count from
+     * @param depth the depth, at least 1
+     * @param bulkCounting whether to count the moves of the last ply instead of playing them
+     * @param pool the pool the root moves are counted on
+     * @return the total, the time taken and the count below each root move
+     */
+    public static Result divide(final Board board, final int depth, final boolean bulkCounting, final ForkJoinPool pool) {
+        final long start = System.nanoTime();
+        final SearchBoard root = new SearchBoard(board);
+        final int[] moves = new int[SearchBoard.MAX_MOVES];
+        final int numMoves = root.generateMoves(moves);
+
+        final List<RootMoveTask> tasks = new ArrayList<>(numMoves);
+        for (int i = 0; i < numMoves; i++) {
+            tasks.add(new RootMoveTask(board, moves[i], depth - 1, bulkCounting));
+        }
+        final Map<String, Long> divide = pool.invoke(new RecursiveTask<Map<String, Long>>() {
+            @Override
+            protected Map<String, Long> compute() {
+                invokeAll(tasks);
+                final Map<String, Long> counts = new LinkedHashMap<>();
+                for (final RootMoveTask task : tasks) {
+                    counts.put(PackedMove.toString(task.move), task.join());
+                }
+                return counts;
+            }
+        });
+
+        long nodes = 0;
+        for (final long count : divide.values()) {
+            nodes += count;
+        }
+        return new Result(nodes, System.nanoTime() - start, divide);
+    }
+
+    /**
+     * Counts the leaf nodes below one root move on a private copy of the board.
+     */
+    private static final class RootMoveTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final Board board;
+        private final int move;
+        private final int depth;
+        private final boolean bulkCounting;
+
+        private RootMoveTask(final Board board, final int move, final int depth, final boolean bulkCounting) {
+            this.board = board;
+            this.move = move;
+            this.depth = depth;
+            this.bulkCounting = bulkCounting;
+        }
+
+        @Override
+        protected Long compute() {
+            final SearchBoard searchBoard = new SearchBoard(this.board);
+            searchBoard.makeMove(this.move);
+            return perft(searchBoard, this.depth, this.bulkCounting);
+        }
+    }
+
+    /**
+     * Runs the reference suite in bulk-counting mode and prints the counts, whether they match and the speed.
+     *
+     * @param args optional maximum depth (default 5) and "divide" to print the per-move counts as well
+     */
+    public static void main(final String[] args) {
+        final int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        final boolean printDivide = args.length > 1 && args[1].equals("divide");
+        final ForkJoinPool pool = ForkJoinPool.commonPool();
+        boolean allPassed = true;
+        long totalNodes = 0;
+        long totalNanos = 0;
+
+        for (final ReferencePosition position : REFERENCE_POSITIONS) {
+            System.out.println(position.getName() + ": " + position.getFen());
+            final Board board = FenUtilities.createBoardFromFen(position.getFen());
+            for (int depth = 1; depth <= Math.min(maxDepth, position.getMaxDepth()); depth++) {
+                final Result result = divide(board, depth, true, pool);
+                final boolean passed = result.getNodes() == position.getExpectedNodes(depth);
+                allPassed &= passed;
+                totalNodes += result.getNodes();
+                totalNanos += result.getElapsedNanos();
+                System.out.printf("  depth %d: %,d nodes (%s) %,d nodes/sec%n", depth, result.getNodes(),
+                        passed ? "OK" : "expected " + position.getExpectedNodes(depth), result.getNodesPerSecond());
+                if (printDivide && depth == Math.min(maxDepth, position.getMaxDepth())) {
+                    result.getDivide().forEach((move, nodes) -> System.out.println("    " + move + ": " + nodes));
+                }
+            }
+        }
+        System.out.printf("%s: %,d nodes, %,d nodes/sec on %d threads%n", allPassed ? "ALL PASSED" : "FAILED",
+                totalNodes, totalNanos == 0 ? 0 : totalNodes * 1_000_000_000L / totalNanos, pool.getParallelism());
+        if (!allPassed) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package core.ai;
+
+/**
+ * Principal variation search: {@link AlphaBeta} that expects the first move of every node, the one
+ * move ordering ranks best, to stay best.
+ *
+ * <p>The other moves are searched with a zero-width window, which only answers "is this move better
+ * than alpha?" and cuts off much sooner than a full window. Only a move that answers yes is searched
+ * again with the full window. Iterative deepening starts each iteration with an aspiration window
+ * around the previous score. Neither changes the score of a node, only how much is searched to find
+ * it, so the move is alpha-beta's at the same depth, unless the transposition table, now filled in
+ * a different order, supplies a deeper search's score for some position.</p>
+ *
+ * <p>The principal variation of the last completed iteration is logged with each iteration and
+ * available through {@link #getPrincipalVariationString()} and {@link #getPrincipalVariationMove(int)}.</p>
+ */
+public class PrincipalVariationSearch extends AlphaBeta {
+
+    /**
+     * A search to a fixed depth, however long it takes, with a transposition table of its own.
+     */
+    public PrincipalVariationSearch(final int searchDepth) {
+        this(searchDepth, TimeBudget.UNLIMITED, new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB));
+    }
+
+    /**
+     * A search that deepens up to a maximum depth for as long as the time budget allows.
+     *
+     * @param transpositionTable the table to use, which may be shared with earlier searches
+     */
+    public PrincipalVariationSearch(final int maxDepth, final TimeBudget timeBudget, final TranspositionTable transpositionTable) {
+        super(maxDepth, timeBudget, transpositionTable, true);
+    }
+
+    @Override
+    public String toString() {
+        return "PrincipalVariationSearch";
+    }
+}
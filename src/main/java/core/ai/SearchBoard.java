@@ -0,0 +1,653 @@
+package core.ai;
+
+import core.PackedMove;
+import entities.Alliance;
+import entities.Board;
+import entities.GameStatus;
+import entities.Pawn;
+import entities.Piece;
+import entities.PieceType;
+import utils.BoardUtils;
+import utils.MagicBitboards;
+import utils.Zobrist;
+
+import java.util.Arrays;
+
+/**
+ * A mutable chess position used by the AI search.
+ *
+ * <p>{@link Board} is immutable, so every {@code Move.execute()} builds a complete new board. The search
+ * instead plays moves on a single SearchBoard with {@link #makeMove(int)} and takes them back with
+ * {@link #unmakeMove()}, which update the bitboards, piece array, en passant square and castling rights
+ * in place and restore them exactly. Moves are {@link PackedMove} ints written into caller-owned
+ * buffers, so searching a node allocates nothing.</p>
+ *
+ * <p>Pieces are stored with the same layout as {@link Board}: one bitboard per piece type and alliance,
+ * indexed by {@code alliance.ordinal() * 6 + pieceType.ordinal()}.</p>
+ */
+public class SearchBoard {
+
+    /** Upper bound on the number of moves in any position. */
+    public static final int MAX_MOVES = 256;
+    /** Maximum number of moves that can be made before they are unmade. */
+    public static final int MAX_PLY = 128;
+
+    public static final int NO_PIECE = -1;
+    public static final int NO_SQUARE = -1;
+
+    private static final int NUM_PIECE_TYPES = PieceType.values().length;
+    private static final int PAWN = PieceType.PAWN.ordinal();
+    private static final int KNIGHT = PieceType.KNIGHT.ordinal();
+    private static final int BISHOP = PieceType.BISHOP.ordinal();
+    private static final int ROOK = PieceType.ROOK.ordinal();
+    private static final int QUEEN = PieceType.QUEEN.ordinal();
+    private static final int KING = PieceType.KING.ordinal();
+
+    private static final Alliance[] ALLIANCES = Alliance.values();
+
+    // Promotion choices, best first
+    private static final int[] PROMOTION_TYPES = {QUEEN, ROOK, BISHOP, KNIGHT};
+
+    private final long[] pieceBitboards = new long[ALLIANCES.length * NUM_PIECE_TYPES];
+    private final long[] allianceBitboards = new long[ALLIANCES.length];
+    private final int[] boardPieces = new int[BoardUtils.NUM_SQUARES];
+    private int sideToMove;
+    private int enPassantSquare;
+    private int castlingRights;
+    private long zobristKey;
+
+    // --- UNDO STACK ---
+    private int ply;
+    private final int[] moveHistory = new int[MAX_PLY];
+    private final int[] capturedHistory = new int[MAX_PLY];
+    private final int[] enPassantHistory = new int[MAX_PLY];
+    private final int[] castlingHistory = new int[MAX_PLY];
+    private final long[] zobristHistory = new long[MAX_PLY];
+
+    // Scratch buffer for queries that need a move list (mobility, escape moves)
+    private final int[] scratchMoves = new int[MAX_MOVES];
+    // Legal move counts of each side at each ply, or UNKNOWN_COUNT; kept across unmake, since the position is restored
+    private static final int UNKNOWN_COUNT = -1;
+    private final int[][] moveCounts = new int[MAX_PLY + 1][ALLIANCES.length];
+    // Per-square pin lines, filled by move generation for the pinned pieces only
+    private final long[] pinRays = new long[BoardUtils.NUM_SQUARES];
+
+    /**
+     * Copies the position of an immutable board.
+     *
+     * @param board the board to search from
+     */
+    public SearchBoard(final Board board) {
+        Arrays.fill(this.boardPieces, NO_PIECE);
+        for (int i = 0; i < BoardUtils.NUM_SQUARES; i++) {
+            final Piece piece = board.getPiece(i);
+            if (piece != null) {
+                addPiece(pieceCode(piece.getPieceAlliance().ordinal(), piece.getPieceType().ordinal()), i);
+            }
+        }
+        this.sideToMove = board.getCurrentPlayer().getAlliance().ordinal();
+
+        // The en passant square is the one the jumping pawn skipped over
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        this.enPassantSquare = enPassantPawn == null ? NO_SQUARE :
+                enPassantPawn.getPiecePosition() + enPassantPawn.getPieceAlliance().getOppositeDirection() * 8;
+        this.castlingRights = board.getCastlingRights();
+        this.zobristKey = board.getZobristKey();
+        Arrays.fill(this.moveCounts[0], UNKNOWN_COUNT);
+    }
+
+    // --- PIECE BOOKKEEPING ---
+
+    private static int pieceCode(final int alliance, final int pieceType) {
+        return alliance * NUM_PIECE_TYPES + pieceType;
+    }
+
+    private void addPiece(final int piece, final int square) {
+        final long bit = 1L << square;
+        this.pieceBitboards[piece] |= bit;
+        this.allianceBitboards[piece / NUM_PIECE_TYPES] |= bit;
+        this.boardPieces[square] = piece;
+    }
+
+    private void removePiece(final int piece, final int square) {
+        final long bit = 1L << square;
+        this.pieceBitboards[piece] &= ~bit;
+        this.allianceBitboards[piece / NUM_PIECE_TYPES] &= ~bit;
+        this.boardPieces[square] = NO_PIECE;
+    }
+
+    private void movePiece(final int piece, final int from, final int to) {
+        final long fromTo = (1L << from) | (1L << to);
+        this.pieceBitboards[piece] ^= fromTo;
+        this.allianceBitboards[piece / NUM_PIECE_TYPES] ^= fromTo;
+        this.boardPieces[from] = NO_PIECE;
+        this.boardPieces[to] = piece;
+    }
+
+    // --- MAKE / UNMAKE ---
+
+    /**
+     * Plays a move generated by {@link #generateMoves(int[])} on this board.
+     *
+     * <p>Generated moves are strictly legal, so the move is played without further checks;
+     * the caller must eventually call {@link #unmakeMove()}.</p>
+     *
+     * @param move the encoded move
+     */
+    public void makeMove(final int move) {
+        final int from = PackedMove.getFrom(move);
+        final int to = PackedMove.getTo(move);
+        final int flag = PackedMove.getFlag(move);
+        final int mover = this.sideToMove;
+        final int piece = this.boardPieces[from];
+
+        final int capturedSquare = flag == PackedMove.EN_PASSANT ? to + ALLIANCES[mover].getOppositeDirection() * 8 : to;
+        final int captured = this.boardPieces[capturedSquare];
+
+        this.moveHistory[this.ply] = move;
+        this.capturedHistory[this.ply] = captured;
+        this.enPassantHistory[this.ply] = this.enPassantSquare;
+        this.castlingHistory[this.ply] = this.castlingRights;
+        this.zobristHistory[this.ply] = this.zobristKey;
+        this.ply++;
+        Arrays.fill(this.moveCounts[this.ply], UNKNOWN_COUNT);
+
+        if (captured != NO_PIECE) {
+            removePiece(captured, capturedSquare);
+        }
+        movePiece(piece, from, to);
+
+        if (PackedMove.isPromotion(move)) {
+            removePiece(piece, to);
+            addPiece(pieceCode(mover, PackedMove.getPromotionType(move)), to);
+        } else if (flag == PackedMove.CASTLE) {
+            final int rook = pieceCode(mover, ROOK);
+            if (to > from) {
+                movePiece(rook, from + 3, from + 1); // king side
+            } else {
+                movePiece(rook, from - 4, from - 1); // queen side
+            }
+        }
+
+        this.enPassantSquare = flag == PackedMove.PAWN_JUMP ? (from + to) / 2 : NO_SQUARE;
+        this.castlingRights = BoardUtils.updateCastlingRights(this.castlingRights, from, to);
+        this.sideToMove = mover ^ 1;
+        updateZobristKey(move, piece, captured, capturedSquare);
+    }
+
+    /**
+     * Brings the key up to date after {@link #makeMove(int)} changed the position, using the same
+     * keys as {@link Board#getZobristKey()}: the board's previous en passant square and castling
+     * rights are still on top of the undo stack.
+     */
+    private void updateZobristKey(final int move, final int piece, final int captured, final int capturedSquare) {
+        final int from = PackedMove.getFrom(move);
+        final int to = PackedMove.getTo(move);
+        final int previousEnPassantSquare = this.enPassantHistory[this.ply - 1];
+        long key = this.zobristKey ^ Zobrist.getBlackToMoveKey() ^
+                Zobrist.getPieceKey(piece, from) ^ Zobrist.getPieceKey(this.boardPieces[to], to);
+        if (captured != NO_PIECE) {
+            key ^= Zobrist.getPieceKey(captured, capturedSquare);
+        }
+        if (PackedMove.getFlag(move) == PackedMove.CASTLE) {
+            final int rook = this.boardPieces[(from + to) / 2];
+            key ^= Zobrist.getPieceKey(rook, to > from ? from + 3 : from - 4) ^ Zobrist.getPieceKey(rook, (from + to) / 2);
+        }
+        key ^= Zobrist.getCastlingKey(this.castlingHistory[this.ply - 1]) ^ Zobrist.getCastlingKey(this.castlingRights);
+        if (previousEnPassantSquare != NO_SQUARE) {
+            key ^= Zobrist.getEnPassantKey(previousEnPassantSquare);
+        }
+        if (this.enPassantSquare != NO_SQUARE) {
+            key ^= Zobrist.getEnPassantKey(this.enPassantSquare);
+        }
+        this.zobristKey = key;
+    }
+
+    /**
+     * Takes back the last move made with {@link #makeMove(int)}, restoring the previous position exactly.
+     */
+    public void unmakeMove() {
+        this.ply--;
+        final int move = this.moveHistory[this.ply];
+        final int from = PackedMove.getFrom(move);
+        final int to = PackedMove.getTo(move);
+        final int flag = PackedMove.getFlag(move);
+        final int mover = this.sideToMove ^ 1;
+
+        if (PackedMove.isPromotion(move)) {
+            removePiece(pieceCode(mover, PackedMove.getPromotionType(move)), to);
+            addPiece(pieceCode(mover, PAWN), to);
+        } else if (flag == PackedMove.CASTLE) {
+            final int rook = pieceCode(mover, ROOK);
+            if (to > from) {
+                movePiece(rook, from + 1, from + 3);
+            } else {
+                movePiece(rook, from - 1, from - 4);
+            }
+        }
+        movePiece(this.boardPieces[to], to, from);
+
+        final int captured = this.capturedHistory[this.ply];
+        if (captured != NO_PIECE) {
+            addPiece(captured, flag == PackedMove.EN_PASSANT ? to + ALLIANCES[mover].getOppositeDirection() * 8 : to);
+        }
+
+        this.enPassantSquare = this.enPassantHistory[this.ply];
+        this.castlingRights = this.castlingHistory[this.ply];
+        this.zobristKey = this.zobristHistory[this.ply];
+        this.sideToMove = mover;
+    }
+
+    /**
+     * Passes the turn without moving, for null-move pruning: only the side to move and the en passant
+     * square change. Must be taken back with {@link #unmakeNullMove()}, and never played in check.
+     */
+    public void makeNullMove() {
+        this.moveHistory[this.ply] = PackedMove.NO_MOVE;
+        this.capturedHistory[this.ply] = NO_PIECE;
+        this.enPassantHistory[this.ply] = this.enPassantSquare;
+        this.castlingHistory[this.ply] = this.castlingRights;
+        this.zobristHistory[this.ply] = this.zobristKey;
+        this.ply++;
+        Arrays.fill(this.moveCounts[this.ply], UNKNOWN_COUNT);
+
+        this.zobristKey ^= Zobrist.getBlackToMoveKey();
+        if (this.enPassantSquare != NO_SQUARE) {
+            this.zobristKey ^= Zobrist.getEnPassantKey(this.enPassantSquare);
+            this.enPassantSquare = NO_SQUARE;
+        }
+        this.sideToMove ^= 1;
+    }
+
+    /**
+     * Takes back the last {@link #makeNullMove()}.
+     */
+    public void unmakeNullMove() {
+        this.ply--;
+        this.enPassantSquare = this.enPassantHistory[this.ply];
+        this.castlingRights = this.castlingHistory[this.ply];
+        this.zobristKey = this.zobristHistory[this.ply];
+        this.sideToMove ^= 1;
+    }
+
+    // --- MOVE GENERATION ---
+
+    /**
+     * Generates the strictly legal moves of the side to move. Checkers and pinned pieces are found
+     * first, so no move has to be played to find out whether it leaves the king in check.
+     *
+     * @param moves buffer of at least {@link #MAX_MOVES} entries to fill
+     * @return the number of moves written
+     */
+    public int generateMoves(final int[] moves) {
+        final int count = generateMoves(this.sideToMove, moves, true, true);
+        this.moveCounts[this.ply][this.sideToMove] = count;
+        return count;
+    }
+
+    /**
+     * Generates only the legal captures and promotions of the side to move, for quiescence search
+     * and for the capture stage of the main search, before any quiet move is generated.
+     *
+     * @param moves buffer of at least {@link #MAX_MOVES} entries to fill
+     * @return the number of moves written
+     */
+    public int generateCaptures(final int[] moves) {
+        return generateMoves(this.sideToMove, moves, true, false);
+    }
+
+    /**
+     * Generates the legal moves {@link #generateCaptures} leaves out: non-capturing moves that do not
+     * promote, castling included.
+     *
+     * @param moves buffer of at least {@link #MAX_MOVES} entries to fill
+     * @return the number of moves written
+     */
+    public int generateQuietMoves(final int[] moves) {
+        return generateMoves(this.sideToMove, moves, false, true);
+    }
+
+    /**
+     * Checks a move that did not come from this board's generator, such as a transposition table's
+     * best move, so it can be played before any move is generated. Agrees with {@link #generateMoves(int[])}.
+     *
+     * @param move the encoded move
+     * @return true if the side to move may play it
+     */
+    public boolean isLegalMove(final int move) {
+        if (move == PackedMove.NO_MOVE) {
+            return false;
+        }
+        final int side = this.sideToMove;
+        final int from = PackedMove.getFrom(move);
+        final int to = PackedMove.getTo(move);
+        final int flag = PackedMove.getFlag(move);
+        final int movedType = PackedMove.getMovedType(move);
+        final int capturedType = PackedMove.getCapturedType(move);
+        if (this.boardPieces[from] != pieceCode(side, movedType)) {
+            return false;
+        }
+        final long occupied = this.allianceBitboards[0] | this.allianceBitboards[1];
+        final long toBit = 1L << to;
+
+        if (flag == PackedMove.CASTLE) {
+            if (isInCheck(ALLIANCES[side])) {
+                return false;
+            }
+            final int count = generateCastles(side, occupied, this.scratchMoves, 0);
+            for (int i = 0; i < count; i++) {
+                if (this.scratchMoves[i] == move) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        if (flag == PackedMove.EN_PASSANT) {
+            if (to != this.enPassantSquare || movedType != PAWN || capturedType != PAWN ||
+                    (BoardUtils.PAWN_ATTACKS[side][from] & toBit) == 0) {
+                return false;
+            }
+        } else {
+            // the target holds the recorded victim, never an own piece or the king
+            if ((this.allianceBitboards[side] & toBit) != 0 || capturedType == KING ||
+                    capturedType != pieceType(this.boardPieces[to]) ||
+                    PackedMove.isPromotion(move) != (movedType == PAWN && ALLIANCES[side].isPawnPromotionSquare(to))) {
+                return false;
+            }
+            final long reach;
+            if (movedType == PAWN) {
+                if (capturedType != PackedMove.NO_PIECE_TYPE) {
+                    reach = flag == PackedMove.NORMAL ? BoardUtils.PAWN_ATTACKS[side][from] : 0L;
+                } else if (flag == PackedMove.PAWN_JUMP) {
+                    reach = (BoardUtils.PAWN_PUSHES[side][from] & occupied) == 0 ? BoardUtils.PAWN_DOUBLE_PUSHES[side][from] : 0L;
+                } else {
+                    reach = BoardUtils.PAWN_PUSHES[side][from];
+                }
+            } else {
+                reach = flag == PackedMove.NORMAL ? calculateAttackBitboard(movedType, from, occupied) : 0L;
+            }
+            if ((reach & toBit) == 0) {
+                return false;
+            }
+        }
+
+        // the king may not be left in check
+        makeMove(move);
+        final boolean legal = !isInCheck(ALLIANCES[side]);
+        unmakeMove();
+        return legal;
+    }
+
+    private int generateMoves(final int side, final int[] moves, final boolean captures, final boolean quiets) {
+        final Alliance alliance = ALLIANCES[side];
+        final long ownPieces = this.allianceBitboards[side];
+        final long enemyPieces = this.allianceBitboards[side ^ 1];
+        final long occupied = ownPieces | enemyPieces;
+        final long targets = (captures ? enemyPieces : 0L) | (quiets ? ~occupied : 0L);
+        final long promotionRank = side == 0 ? BoardUtils.EIGHTH_RANK_BITBOARD : BoardUtils.FIRST_RANK_BITBOARD;
+        int count = 0;
+
+        // --- KING ---
+        // Each destination is tested with the king lifted off the board, so it cannot hide behind itself
+        final long king = this.pieceBitboards[pieceCode(side, KING)];
+        final int kingSquare = Long.numberOfTrailingZeros(king);
+        long kingDestinations = BoardUtils.KING_ATTACKS[kingSquare] & targets;
+        while (kingDestinations != 0) {
+            final int to = Long.numberOfTrailingZeros(kingDestinations);
+            kingDestinations &= kingDestinations - 1;
+            if (getAttackers(to, side ^ 1, occupied ^ king) == 0) {
+                moves[count++] = PackedMove.create(kingSquare, to, KING, pieceType(this.boardPieces[to]),
+                        PackedMove.NO_PIECE_TYPE, PackedMove.NORMAL);
+            }
+        }
+
+        // --- CHECKS AND PINS ---
+        // In double check only the king may move; in single check the others must capture or block
+        final long checkers = getAttackers(kingSquare, side ^ 1, occupied);
+        if (Long.bitCount(checkers) > 1) {
+            return count;
+        }
+        final long checkMask = checkers == 0 ? ~0L :
+                checkers | BoardUtils.getSquaresBetween(kingSquare, Long.numberOfTrailingZeros(checkers));
+        final long enemyQueens = this.pieceBitboards[pieceCode(side ^ 1, QUEEN)];
+        final long pinned = MagicBitboards.calculatePinnedPieces(kingSquare, ownPieces, enemyPieces,
+                this.pieceBitboards[pieceCode(side ^ 1, ROOK)] | enemyQueens,
+                this.pieceBitboards[pieceCode(side ^ 1, BISHOP)] | enemyQueens, this.pinRays);
+
+        // --- PAWNS ---
+        final long[] pushes = BoardUtils.PAWN_PUSHES[side];
+        final long[] doublePushes = BoardUtils.PAWN_DOUBLE_PUSHES[side];
+        final long[] pawnAttacks = BoardUtils.PAWN_ATTACKS[side];
+        long pawns = this.pieceBitboards[pieceCode(side, PAWN)];
+        while (pawns != 0) {
+            final int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            final long legalMask = (pinned & (1L << from)) != 0 ? checkMask & this.pinRays[from] : checkMask;
+
+            // Promotions by push count as tactical moves, other pushes as quiet ones
+            final long singleStep = pushes[from] & ~occupied;
+            if ((singleStep & legalMask & ((captures ? promotionRank : 0L) | (quiets ? ~promotionRank : 0L))) != 0) {
+                count = addPawnMoves(from, Long.numberOfTrailingZeros(singleStep), PackedMove.NO_PIECE_TYPE,
+                        alliance, moves, count);
+            }
+            if (quiets && singleStep != 0) {
+                final long doubleStep = doublePushes[from] & ~occupied & legalMask;
+                if (doubleStep != 0) {
+                    moves[count++] = PackedMove.create(from, Long.numberOfTrailingZeros(doubleStep), PAWN,
+                            PackedMove.NO_PIECE_TYPE, PackedMove.NO_PIECE_TYPE, PackedMove.PAWN_JUMP);
+                }
+            }
+
+            if (!captures) {
+                continue;
+            }
+            final long attacks = pawnAttacks[from];
+            long pawnCaptures = attacks & enemyPieces & legalMask;
+            while (pawnCaptures != 0) {
+                final int to = Long.numberOfTrailingZeros(pawnCaptures);
+                pawnCaptures &= pawnCaptures - 1;
+                count = addPawnMoves(from, to, pieceType(this.boardPieces[to]), alliance, moves, count);
+            }
+            // Only the side to move may capture en passant
+            if (side == this.sideToMove && this.enPassantSquare != NO_SQUARE &&
+                    (attacks & (1L << this.enPassantSquare)) != 0 &&
+                    isEnPassantSafe(side, kingSquare, from, occupied)) {
+                moves[count++] = PackedMove.create(from, this.enPassantSquare, PAWN, PAWN,
+                        PackedMove.NO_PIECE_TYPE, PackedMove.EN_PASSANT);
+            }
+        }
+
+        // --- PIECES ---
+        for (int pieceType = KNIGHT; pieceType <= QUEEN; pieceType++) {
+            long pieces = this.pieceBitboards[pieceCode(side, pieceType)];
+            while (pieces != 0) {
+                final int from = Long.numberOfTrailingZeros(pieces);
+                pieces &= pieces - 1;
+                final long legalMask = (pinned & (1L << from)) != 0 ? checkMask & this.pinRays[from] : checkMask;
+                long destinations = calculateAttackBitboard(pieceType, from, occupied) & targets & legalMask;
+                while (destinations != 0) {
+                    final int to = Long.numberOfTrailingZeros(destinations);
+                    destinations &= destinations - 1;
+                    moves[count++] = PackedMove.create(from, to, pieceType, pieceType(this.boardPieces[to]),
+                            PackedMove.NO_PIECE_TYPE, PackedMove.NORMAL);
+                }
+            }
+        }
+
+        // --- CASTLING ---
+        if (quiets && checkers == 0) {
+            count = generateCastles(side, occupied, moves, count);
+        }
+        return count;
+    }
+
+    /**
+     * En passant removes two pawns from one rank at once, which can expose the king in ways a pin
+     * mask does not see, so the resulting occupancy is checked directly.
+     */
+    private boolean isEnPassantSafe(final int side, final int kingSquare, final int from, final long occupied) {
+        final int capturedSquare = this.enPassantSquare + ALLIANCES[side].getOppositeDirection() * 8;
+        final long occupiedAfter = occupied ^ (1L << from) ^ (1L << this.enPassantSquare) ^ (1L << capturedSquare);
+        // The captured pawn is gone, so it no longer counts as an attacker
+        return (getAttackers(kingSquare, side ^ 1, occupiedAfter) & occupiedAfter) == 0;
+    }
+
+    /**
+     * Adds a pawn move, or one move per promotion piece when it reaches the last rank.
+     */
+    private static int addPawnMoves(final int from, final int to, final int capturedType,
+                                    final Alliance alliance, final int[] moves, int count) {
+        if (alliance.isPawnPromotionSquare(to)) {
+            for (final int promotionType : PROMOTION_TYPES) {
+                moves[count++] = PackedMove.create(from, to, PAWN, capturedType, promotionType, PackedMove.NORMAL);
+            }
+        } else {
+            moves[count++] = PackedMove.create(from, to, PAWN, capturedType, PackedMove.NO_PIECE_TYPE, PackedMove.NORMAL);
+        }
+        return count;
+    }
+
+    private static int pieceType(final int piece) {
+        return piece == NO_PIECE ? PackedMove.NO_PIECE_TYPE : piece % NUM_PIECE_TYPES;
+    }
+
+    private int generateCastles(final int side, final long occupied, final int[] moves, int count) {
+        final int kingSide = side == 0 ? BoardUtils.WHITE_KING_SIDE_CASTLE : BoardUtils.BLACK_KING_SIDE_CASTLE;
+        final int queenSide = side == 0 ? BoardUtils.WHITE_QUEEN_SIDE_CASTLE : BoardUtils.BLACK_QUEEN_SIDE_CASTLE;
+        if ((this.castlingRights & (kingSide | queenSide)) == 0) {
+            return count;
+        }
+        final int kingSquare = side == 0 ? 60 : 4;
+        final Alliance opponent = ALLIANCES[side ^ 1];
+        // King side: the two squares towards the rook are empty and safe
+        if ((this.castlingRights & kingSide) != 0 &&
+                (occupied & ((1L << (kingSquare + 1)) | (1L << (kingSquare + 2)))) == 0 &&
+                !isSquareAttacked(kingSquare + 1, opponent) && !isSquareAttacked(kingSquare + 2, opponent)) {
+            moves[count++] = PackedMove.create(kingSquare, kingSquare + 2, KING,
+                    PackedMove.NO_PIECE_TYPE, PackedMove.NO_PIECE_TYPE, PackedMove.CASTLE);
+        }
+        // Queen side: three squares are empty, the two the king crosses are safe
+        if ((this.castlingRights & queenSide) != 0 &&
+                (occupied & ((1L << (kingSquare - 1)) | (1L << (kingSquare - 2)) | (1L << (kingSquare - 3)))) == 0 &&
+                !isSquareAttacked(kingSquare - 1, opponent) && !isSquareAttacked(kingSquare - 2, opponent)) {
+            moves[count++] = PackedMove.create(kingSquare, kingSquare - 2, KING,
+                    PackedMove.NO_PIECE_TYPE, PackedMove.NO_PIECE_TYPE, PackedMove.CASTLE);
+        }
+        return count;
+    }
+
+    private static long calculateAttackBitboard(final int pieceType, final int square, final long occupied) {
+        if (pieceType == KNIGHT) return BoardUtils.KNIGHT_ATTACKS[square];
+        if (pieceType == BISHOP) return MagicBitboards.getBishopAttacks(square, occupied);
+        if (pieceType == ROOK) return MagicBitboards.getRookAttacks(square, occupied);
+        if (pieceType == QUEEN) return MagicBitboards.getQueenAttacks(square, occupied);
+        return BoardUtils.KING_ATTACKS[square];
+    }
+
+    // --- QUERIES ---
+
+    /**
+     * Checks whether any piece of the given alliance attacks a square.
+     *
+     * @param square the square to test
+     * @param attacker the alliance whose attacks count
+     * @return true if the square is attacked
+     */
+    public boolean isSquareAttacked(final int square, final Alliance attacker) {
+        final int side = attacker.ordinal();
+        final long occupied = this.allianceBitboards[0] | this.allianceBitboards[1];
+        // A pawn attacks the square if a pawn of the other colour standing there would attack it back
+        if ((BoardUtils.PAWN_ATTACKS[side ^ 1][square] & this.pieceBitboards[pieceCode(side, PAWN)]) != 0 ||
+                (BoardUtils.KNIGHT_ATTACKS[square] & this.pieceBitboards[pieceCode(side, KNIGHT)]) != 0 ||
+                (BoardUtils.KING_ATTACKS[square] & this.pieceBitboards[pieceCode(side, KING)]) != 0) {
+            return true;
+        }
+        final long queens = this.pieceBitboards[pieceCode(side, QUEEN)];
+        return (MagicBitboards.getBishopAttacks(square, occupied) & (this.pieceBitboards[pieceCode(side, BISHOP)] | queens)) != 0 ||
+                (MagicBitboards.getRookAttacks(square, occupied) & (this.pieceBitboards[pieceCode(side, ROOK)] | queens)) != 0;
+    }
+
+    /**
+     * Finds every piece of one side attacking a square, with sliders blocked by the given occupancy.
+     */
+    private long getAttackers(final int square, final int side, final long occupied) {
+        final long queens = this.pieceBitboards[pieceCode(side, QUEEN)];
+        return (BoardUtils.PAWN_ATTACKS[side ^ 1][square] & this.pieceBitboards[pieceCode(side, PAWN)]) |
+                (BoardUtils.KNIGHT_ATTACKS[square] & this.pieceBitboards[pieceCode(side, KNIGHT)]) |
+                (BoardUtils.KING_ATTACKS[square] & this.pieceBitboards[pieceCode(side, KING)]) |
+                (MagicBitboards.getBishopAttacks(square, occupied) & (this.pieceBitboards[pieceCode(side, BISHOP)] | queens)) |
+                (MagicBitboards.getRookAttacks(square, occupied) & (this.pieceBitboards[pieceCode(side, ROOK)] | queens));
+    }
+
+    public boolean isInCheck(final Alliance alliance) {
+        final long king = this.pieceBitboards[pieceCode(alliance.ordinal(), KING)];
+        return king != 0 && isSquareAttacked(Long.numberOfTrailingZeros(king), alliance.getOpponent());
+    }
+
+    /**
+     * Checks whether the side to move has at least one legal move.
+     */
+    public boolean hasLegalMoves() {
+        return countMoves(ALLIANCES[this.sideToMove]) != 0;
+    }
+
+    /**
+     * Counts the legal moves of an alliance, as the immutable board's players do for mobility.
+     * The count is generated at most once per position and side.
+     */
+    public int countMoves(final Alliance alliance) {
+        final int side = alliance.ordinal();
+        int count = this.moveCounts[this.ply][side];
+        if (count == UNKNOWN_COUNT) {
+            count = generateMoves(side, this.scratchMoves, true, true);
+            this.moveCounts[this.ply][side] = count;
+        }
+        return count;
+    }
+
+    /**
+     * Checkmate, stalemate or neither, for the side to move, derived from the memoised legal move count.
+     */
+    public GameStatus getGameStatus() {
+        final Alliance sideToMove = ALLIANCES[this.sideToMove];
+        return GameStatus.of(isInCheck(sideToMove), hasLegalMoves());
+    }
+
+    public Alliance getSideToMove() {
+        return ALLIANCES[this.sideToMove];
+    }
+
+    /**
+     * Sums the {@link PieceType#getPieceValue() values} of an alliance's knights, bishops, rooks and queens.
+     * Zero means king and pawns only, where zugzwang is common.
+     */
+    public int getNonPawnMaterial(final Alliance alliance) {
+        final int side = alliance.ordinal();
+        int material = 0;
+        for (final int pieceType : PROMOTION_TYPES) {
+            material += Long.bitCount(this.pieceBitboards[pieceCode(side, pieceType)]) *
+                    PieceType.values()[pieceType].getPieceValue();
+        }
+        return material;
+    }
+
+    public long getPieceBitboard(final Alliance alliance, final PieceType pieceType) {
+        return this.pieceBitboards[pieceCode(alliance.ordinal(), pieceType.ordinal())];
+    }
+
+    public int getEnPassantSquare() {
+        return this.enPassantSquare;
+    }
+
+    public int getCastlingRights() {
+        return this.castlingRights;
+    }
+
+    /**
+     * Returns the Zobrist key of the current position, equal to {@link Board#getZobristKey()} for the same position.
+     */
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+}
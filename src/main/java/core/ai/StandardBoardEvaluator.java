@@ -1,7 +1,10 @@
 package core.ai;
 
+import entities.Alliance;
 import entities.Board;
+import entities.GameStatus;
 import entities.Piece;
+import entities.PieceType;
 import players.Player;
 
 /**
@@ -24,7 +27,7 @@ public class StandardBoardEvaluator implements BoardEvaluator {
         return pieceValue(player) +
                 mobility(player) +
                 check(player) +
-                checkmate(player, depth) +
+                checkmate(board, player, depth) +
                 castled(player);
     }
 
@@ -52,11 +55,12 @@ public class StandardBoardEvaluator implements BoardEvaluator {
     //CHECKMATE_BONUS
     // if checkmated, get massive points
     // add depth bonus to prefer checkmating sooner rather than later
-    private static int checkmate(final Player player, int depth){
-        if (!player.getOpponent().isInCheck()) {
+    // only the side to move can be mated, and the board memoises whether it is
+    private static int checkmate(final Board board, final Player player, int depth){
+        if (board.getCurrentPlayer() != player.getOpponent()) {
            return 0;
         }
-        return player.getOpponent().isInCheckMate() ? CHECK_MATE_BONUS + DEPTH_BONUS * depth : 0;
+        return board.getGameStatus() == GameStatus.CHECKMATE ? CHECK_MATE_BONUS + DEPTH_BONUS * depth : 0;
 
     }
 
@@ -69,4 +73,44 @@ public class StandardBoardEvaluator implements BoardEvaluator {
     private static int castled(final Player player){
         return player.isCastled() ? CASTLE_BONUS : 0;
     }
+
+    // --- SEARCH BOARD ---
+    // Same terms as above, read from the mutable search board instead of Player objects.
+    // There is no castled() term: Player.isCastled() is always false.
+    @Override
+    public int evaluate(final SearchBoard board, final int depth) {
+        return scoreAlliance(board, Alliance.WHITE, depth) -
+                scoreAlliance(board, Alliance.BLACK, depth);
+    }
+
+    private int scoreAlliance(final SearchBoard board, final Alliance alliance, final int depth) {
+        return pieceValue(board, alliance) +
+                mobility(board, alliance) +
+                check(board, alliance) +
+                checkmate(board, alliance, depth);
+    }
+
+    private static int pieceValue(final SearchBoard board, final Alliance alliance) {
+        int pieceValueScore = 0;
+        for (final PieceType pieceType : PieceType.values()) {
+            pieceValueScore += Long.bitCount(board.getPieceBitboard(alliance, pieceType)) * pieceType.getPieceValue();
+        }
+        return pieceValueScore;
+    }
+
+    private static int mobility(final SearchBoard board, final Alliance alliance) {
+        return board.countMoves(alliance) * MOBILITY_MULTIPLIER;
+    }
+
+    private static int check(final SearchBoard board, final Alliance alliance) {
+        return board.isInCheck(alliance.getOpponent()) ? CHECK_BONUS : 0;
+    }
+
+    // only the side to move can be mated
+    private static int checkmate(final SearchBoard board, final Alliance alliance, final int depth) {
+        if (board.getSideToMove() != alliance.getOpponent()) {
+            return 0;
+        }
+        return board.getGameStatus() == GameStatus.CHECKMATE ? CHECK_MATE_BONUS + DEPTH_BONUS * depth : 0;
+    }
 }
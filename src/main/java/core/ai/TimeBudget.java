@@ -0,0 +1,63 @@
+package core.ai;
+
+/**
+ * How long a search may think about one move.
+ *
+ * <p>The soft limit is checked between iterations of iterative deepening: once it has passed, no new
+ * (and several times longer) iteration is started. The hard limit is checked during an iteration and
+ * aborts it, so the search always returns within it, give or take the last few nodes.</p>
+ */
+public final class TimeBudget {
+    // the clock only shows whole seconds and the move still has to reach the board
+    private static final long MOVE_OVERHEAD_MILLIS = 200;
+    // sudden death: plan as if this many moves were still to be played on the remaining time
+    private static final long MOVES_TO_GO = 30;
+    // never spend more than this share of the remaining time on a single move
+    private static final long MAX_SHARE_DIVISOR = 5;
+    private static final long MIN_LIMIT_MILLIS = 10;
+
+    public static final TimeBudget UNLIMITED = new TimeBudget(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    private final long softLimitMillis;
+    private final long hardLimitMillis;
+
+    public TimeBudget(final long softLimitMillis, final long hardLimitMillis) {
+        if (softLimitMillis < 0 || hardLimitMillis < softLimitMillis) {
+            throw new IllegalArgumentException("Invalid time budget: soft " + softLimitMillis + "ms, hard " + hardLimitMillis + "ms");
+        }
+        this.softLimitMillis = softLimitMillis;
+        this.hardLimitMillis = hardLimitMillis;
+    }
+
+    /**
+     * Splits a side's remaining clock time into the budget for its next move: about a thirtieth of
+     * the time left as the soft limit, and at most three times that, capped at a fifth of the time
+     * left, as the hard limit. The budget shrinks with the clock, so the side never runs out.
+     *
+     * @param remainingMillis the time left on the clock of the side to move
+     * @return the budget for one move
+     */
+    public static TimeBudget fromRemainingTime(final long remainingMillis) {
+        final long usable = Math.max(0, remainingMillis - MOVE_OVERHEAD_MILLIS);
+        final long softLimit = Math.max(MIN_LIMIT_MILLIS, usable / MOVES_TO_GO);
+        final long hardLimit = Math.max(softLimit, Math.min(softLimit * 3, usable / MAX_SHARE_DIVISOR));
+        return new TimeBudget(softLimit, hardLimit);
+    }
+
+    public long getSoftLimitMillis() {
+        return this.softLimitMillis;
+    }
+
+    public long getHardLimitMillis() {
+        return this.hardLimitMillis;
+    }
+
+    public boolean isUnlimited() {
+        return this.hardLimitMillis == Long.MAX_VALUE;
+    }
+
+    @Override
+    public String toString() {
+        return isUnlimited() ? "unlimited" : "soft " + this.softLimitMillis + "ms, hard " + this.hardLimitMillis + "ms";
+    }
+}
@@ -0,0 +1,182 @@
+package core.ai;
+
+import core.PackedMove;
+
+import java.util.Arrays;
+
+/**
+ * Remembers the result of every searched position by its Zobrist key, so a position reached again by
+ * another move order (a transposition) is not searched from scratch.
+ *
+ * <p>The table is one {@code long[]} of fixed size: no object per entry and no garbage, however many
+ * millions of entries it holds. Each bucket holds two entries of two longs: a depth-preferred entry,
+ * only replaced by a search at least as deep (or by any search of a newer move), and an always-replace
+ * entry that keeps the most recent position that did not make it into the first one.</p>
+ *
+ * <p>An entry is written as {@code key ^ data} and {@code data}, without locks. A reader recomputes
+ * the key from both halves, so an entry torn by two threads writing at once fails the key check and
+ * reads as a miss instead of returning another position's data. This is what makes the table safe
+ * to share between search threads.</p>
+ *
+ * <p>Data layout (low to high bits):
+ * <ul>
+ *     <li>0-22: best move ({@link PackedMove}), or {@link PackedMove#NO_MOVE}</li>
+ *     <li>23-44: score + {@code 2^21}</li>
+ *     <li>45-51: depth</li>
+ *     <li>52-53: bound type ({@link #EXACT}, {@link #LOWER_BOUND}, {@link #UPPER_BOUND})</li>
+ *     <li>54-61: generation, the search that wrote the entry</li>
+ * </ul></p>
+ */
+public final class TranspositionTable {
+
+    // --- BOUND TYPES ---
+    public static final int NO_BOUND = 0;
+    /** The score is exact: it fell inside the window. */
+    public static final int EXACT = 1;
+    /** The search failed high: the real score is at least the stored one. */
+    public static final int LOWER_BOUND = 2;
+    /** The search failed low: the real score is at most the stored one. */
+    public static final int UPPER_BOUND = 3;
+
+    public static final int DEFAULT_SIZE_MB = 64;
+
+    private static final int MOVE_BITS = 23;
+    private static final int SCORE_SHIFT = 23;
+    private static final int SCORE_BITS = 22;
+    private static final int SCORE_OFFSET = 1 << (SCORE_BITS - 1);
+    private static final int DEPTH_SHIFT = 45;
+    private static final int DEPTH_BITS = 7;
+    private static final int BOUND_SHIFT = 52;
+    private static final int GENERATION_SHIFT = 54;
+    private static final int GENERATION_BITS = 8;
+
+    // two entries of two longs per bucket
+    private static final int LONGS_PER_BUCKET = 4;
+    private static final int BYTES_PER_BUCKET = LONGS_PER_BUCKET * Long.BYTES;
+
+    private final long[] table;
+    private final long bucketMask;
+    private volatile int generation;
+
+    /**
+     * @param sizeMb the memory to use in megabytes, rounded down to a power of two number of buckets
+     */
+    public TranspositionTable(final int sizeMb) {
+        if (sizeMb < 1) {
+            throw new IllegalArgumentException("Transposition table size must be at least 1 MB, got " + sizeMb);
+        }
+        final long buckets = Long.highestOneBit(sizeMb * 1024L * 1024L / BYTES_PER_BUCKET);
+        if (buckets * LONGS_PER_BUCKET > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Transposition table size too large: " + sizeMb + " MB");
+        }
+        this.table = new long[(int) (buckets * LONGS_PER_BUCKET)];
+        this.bucketMask = buckets - 1;
+    }
+
+    /**
+     * @return the number of entries the table can hold
+     */
+    public int getCapacity() {
+        return this.table.length / 2;
+    }
+
+    /**
+     * Marks the start of a new search, so entries of earlier searches give way to new ones.
+     */
+    public void newSearch() {
+        this.generation = (this.generation + 1) & ((1 << GENERATION_BITS) - 1);
+    }
+
+    /**
+     * Empties the table, e.g. for a new game.
+     */
+    public void clear() {
+        Arrays.fill(this.table, 0L);
+        this.generation = 0;
+    }
+
+    /**
+     * Looks a position up.
+     *
+     * @param key the Zobrist key of the position
+     * @return the packed entry data, or 0 when the position is not stored; read it with the static accessors
+     */
+    public long probe(final long key) {
+        final int index = bucketIndex(key);
+        for (int slot = index; slot < index + LONGS_PER_BUCKET; slot += 2) {
+            final long data = this.table[slot + 1];
+            if ((this.table[slot] ^ data) == key && data != 0) {
+                return data;
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * Stores the result of a search.
+     *
+     * @param key the Zobrist key of the position
+     * @param depth the remaining depth that was searched
+     * @param bound the bound type of the score
+     * @param score the score for the side to move
+     * @param move the best move found, or {@link PackedMove#NO_MOVE}
+     */
+    public void store(final long key, final int depth, final int bound, final int score, final int move) {
+        final int index = bucketIndex(key);
+        final int currentGeneration = this.generation;
+        final long deepData = this.table[index + 1];
+        final int slot;
+        if ((this.table[index] ^ deepData) == key ||
+                getGeneration(deepData) != currentGeneration ||
+                depth >= getDepth(deepData)) {
+            slot = index;
+        } else {
+            slot = index + 2;
+        }
+
+        // keep the best move of an earlier search of this position if this one found none
+        int bestMove = move;
+        if (bestMove == PackedMove.NO_MOVE) {
+            final long previous = probe(key);
+            bestMove = previous != 0 ? getMove(previous) : PackedMove.NO_MOVE;
+        }
+
+        final long data = (bestMove & ((1L << MOVE_BITS) - 1)) |
+                ((long) (clampScore(score) + SCORE_OFFSET) << SCORE_SHIFT) |
+                ((long) Math.min(depth, (1 << DEPTH_BITS) - 1) << DEPTH_SHIFT) |
+                ((long) bound << BOUND_SHIFT) |
+                ((long) currentGeneration << GENERATION_SHIFT);
+        this.table[slot] = key ^ data;
+        this.table[slot + 1] = data;
+    }
+
+    private int bucketIndex(final long key) {
+        return (int) (key & this.bucketMask) * LONGS_PER_BUCKET;
+    }
+
+    private static int clampScore(final int score) {
+        return Math.max(-SCORE_OFFSET + 1, Math.min(SCORE_OFFSET - 1, score));
+    }
+
+    // --- ENTRY ACCESSORS ---
+
+    public static int getMove(final long data) {
+        return (int) (data & ((1L << MOVE_BITS) - 1));
+    }
+
+    public static int getScore(final long data) {
+        return (int) ((data >>> SCORE_SHIFT) & ((1L << SCORE_BITS) - 1)) - SCORE_OFFSET;
+    }
+
+    public static int getDepth(final long data) {
+        return (int) ((data >>> DEPTH_SHIFT) & ((1L << DEPTH_BITS) - 1));
+    }
+
+    public static int getBound(final long data) {
+        return (int) ((data >>> BOUND_SHIFT) & 0x3);
+    }
+
+    private static int getGeneration(final long data) {
+        return (int) ((data >>> GENERATION_SHIFT) & ((1L << GENERATION_BITS) - 1));
+    }
+}
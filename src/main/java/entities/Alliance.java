@@ -38,6 +38,9 @@ public enum Alliance {
         public int getOppositeDirection() {
             return 1; // Opposite of white movement direction
         }
+
+        @Override
+        public Alliance getOpponent() { return BLACK; }
     },
 
     BLACK {
@@ -62,6 +65,9 @@ public enum Alliance {
 
         @Override
         public int getOppositeDirection() { return -1; } // Opposite of black movement direction
+
+        @Override
+        public Alliance getOpponent() { return WHITE; }
     };
 
     // --- ABSTRACT METHODS FOR ALLIANCES ---
@@ -70,5 +76,6 @@ public enum Alliance {
     public abstract boolean isBlack();
     public abstract boolean isPawnPromotionSquare(int position);
     public abstract int getOppositeDirection();
+    public abstract Alliance getOpponent();
     public abstract Player choosePlayer(WhitePlayer whitePlayer, BlackPlayer blackPlayer);
 }
\ No newline at end of file
@@ -1,10 +1,8 @@
 package entities;
 
 import core.Move;
-import utils.BoardUtils;
+import utils.MagicBitboards;
 
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 
 /**
@@ -14,102 +12,74 @@ import java.util.List;
  */
 public class Bishop extends Piece {
 
-    private static final int[] CANDIDATE_MOVE_VECTOR_COORDINATES = {-9, -7, 7, 9};
+    private static final Bishop[] INTERNED_BISHOPS = internPieces(new Bishop[INTERNED_PIECES_PER_TYPE], Bishop::new);
+
+    private Bishop(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        super(piecePosition, pieceAlliance, PieceType.BISHOP, isFirstMove);
+    }
 
     /**
-     * Constructs a Bishop with default first move status.
+     * Returns the interned Bishop with default first move status.
      *
      * @param piecePosition the initial position of the bishop
      * @param pieceAlliance the alliance (WHITE/BLACK) of the bishop
+     * @return the shared Bishop instance
      */
-    public Bishop(final int piecePosition, final Alliance pieceAlliance) {
-        super(piecePosition, pieceAlliance, PieceType.BISHOP, true);
+    public static Bishop create(final int piecePosition, final Alliance pieceAlliance) {
+        return create(piecePosition, pieceAlliance, true);
     }
 
     /**
-     * Constructs a Bishop with specified first move status.
+     * Returns the interned Bishop with specified first move status.
      *
      * @param piecePosition the initial position of the bishop
      * @param pieceAlliance the alliance (WHITE/BLACK) of the bishop
      * @param isFirstMove   whether the bishop has moved before
+     * @return the shared Bishop instance
      */
-    public Bishop(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
-        super(piecePosition, pieceAlliance, PieceType.BISHOP, isFirstMove);
+    public static Bishop create(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        return INTERNED_BISHOPS[internIndex(piecePosition, pieceAlliance, isFirstMove)];
     }
 
     /**
-     * Calculates all legal moves for this bishop on the given board.
+     * Calculates the set of squares a Bishop on the given square attacks, sliding along each
+     * direction until blocked by a piece (the blocker's square is included) or the board edge.
+     * The result is a single lookup in the precomputed {@link MagicBitboards} tables.
+     *
+     * @param piecePosition the square the Bishop stands on
+     * @param occupied bitboard of every occupied square
+     * @return bitboard of attacked squares
+     */
+    public static long calculateAttackBitboard(final int piecePosition, final long occupied) {
+        return MagicBitboards.getBishopAttacks(piecePosition, occupied);
+    }
+
+    /**
+     * Adds all legal moves for this bishop on the given board to a move list.
      * Bishops move diagonally until blocked.
      *
      * @param board the board to evaluate moves on
-     * @return a collection of legal moves
+     * @param destinationMask the squares it may move to
+     * @param moves the list receiving the legal moves
      */
     @Override
-    public Collection<Move> calculateLegalMoves(final Board board) {
-        final List<Move> legalMoves = new ArrayList<>();
-
-        for (final int candidateOffset : CANDIDATE_MOVE_VECTOR_COORDINATES) {
-            int candidateDestinationCoordinate = this.getPiecePosition();
-
-            while (BoardUtils.isValidSquareCoordinate(candidateDestinationCoordinate)) {
-                if (isFirstColumnExclusion(candidateDestinationCoordinate, candidateOffset) ||
-                        isEighthColumnExclusion(candidateDestinationCoordinate, candidateOffset)) {
-                    break;
-                }
-
-                candidateDestinationCoordinate += candidateOffset;
-
-                if (!BoardUtils.isValidSquareCoordinate(candidateDestinationCoordinate)) {
-                    break;
-                }
-
-                final Square candidateSquare = board.getSquare(candidateDestinationCoordinate);
-
-                if (!candidateSquare.isOccupied()) {
-                    legalMoves.add(new Move.MajorMove(board, this, candidateDestinationCoordinate));
-                } else {
-                    final Piece pieceAtDestination = candidateSquare.getPiece();
-                    final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
-
-                    if (this.getPieceAlliance() != pieceAlliance) {
-                        legalMoves.add(new Move.AttackMove(board, this, candidateDestinationCoordinate, pieceAtDestination));
-                    }
-                    break; // blocked by a piece
-                }
-            }
-        }
-        return legalMoves;
+    public void addLegalMoves(final Board board, final long destinationMask, final List<Move> moves) {
+        addMoves(board, calculateAttackBitboard(this.getPiecePosition(), board.getOccupiedBitboard()) & destinationMask, moves);
     }
 
     /**
-     * Returns a new Bishop at the destination of the given move.
+     * Returns the Bishop at the destination of the given move.
      *
      * @param move the move to execute
-     * @return a new Bishop instance at the destination
+     * @return the interned Bishop at the destination
      */
     @Override
     public Bishop movePiece(final Move move) {
-        return new Bishop(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return create(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
     }
 
     @Override
     public String toString() {
         return PieceType.BISHOP.toString();
     }
-
-    // --- HELPER METHODS ---
-
-    /**
-     * Handles edge exclusion for the first column (left edge of board).
-     */
-    private static boolean isFirstColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.FIRST_COLUMN[currentPosition] && (candidateOffset == -9 || candidateOffset == 7);
-    }
-
-    /**
-     * Handles edge exclusion for the eighth column (right edge of board).
-     */
-    private static boolean isEighthColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.EIGHTH_COLUMN[currentPosition] && (candidateOffset == -7 || candidateOffset == 9);
-    }
-}
\ No newline at end of file
+}
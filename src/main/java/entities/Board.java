@@ -3,18 +3,42 @@ package entities;
 import players.BlackPlayer;
 import players.Player;
 import players.WhitePlayer;
-import core.Move;
-import java.util.*;
+import utils.BoardUtils;
+import utils.MagicBitboards;
+import utils.Zobrist;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Represents a chess board with pieces, players, and game state.
+ *
+ * <p>The position is stored as bitboards: one {@code long} per piece type and alliance (bit i set means
+ * that piece stands on square i), plus occupancy sets per alliance and for the whole board. A 64-entry
+ * piece array backs {@link #getPiece(int)} and the {@link Square} views.</p>
+ *
+ * <p>Every board also carries a Zobrist key ({@link #getZobristKey()}) identifying the position: pieces,
+ * side to move, castling rights and en passant file. It is hashed from scratch only for boards set up
+ * directly; boards produced by a {@link core.Move} receive a key updated incrementally from their parent.</p>
  */
 public class Board {
 
-    private final List<Square> gameBoard;
-    private final Collection<Piece> whitePieces;
-    private final Collection<Piece> blackPieces;
+    private final Piece[] boardPieces;
+    private final long[] pieceBitboards;
+    private final long whiteBitboard;
+    private final long blackBitboard;
+    private final long occupiedBitboard;
+
+    // Derived on first access; many boards built during a search are only probed for check
+    private volatile Collection<Piece> whitePieces;
+    private volatile Collection<Piece> blackPieces;
     private final Pawn enPassantPawn;
+    private final int castlingRights;
+    private final long zobristKey;
+    // Computed on first access and memoised for this board
+    private volatile GameStatus gameStatus;
 
     private final WhitePlayer whitePlayer;
     private final BlackPlayer blackPlayer;
@@ -22,28 +46,32 @@ public class Board {
 
     /**
      * Constructs a board from a Builder.
+     *
+     * <p>Only the piece placement is set up here. Piece lists, legal moves, castles and check
+     * status are computed on first access and memoised by the board and its players.</p>
      */
     private Board(final Builder builder) {
-        this.gameBoard = createGameBoard(builder);
+        this.boardPieces = builder.boardConfig.clone();
+        this.pieceBitboards = createPieceBitboards(this.boardPieces);
+        this.whiteBitboard = calculateAllianceBitboard(this.pieceBitboards, Alliance.WHITE);
+        this.blackBitboard = calculateAllianceBitboard(this.pieceBitboards, Alliance.BLACK);
+        this.occupiedBitboard = this.whiteBitboard | this.blackBitboard;
 
         this.enPassantPawn = builder.enPassantPawn;
-        this.whitePieces = calculateActivePieces(this.gameBoard, Alliance.WHITE);
-        this.blackPieces = calculateActivePieces(this.gameBoard, Alliance.BLACK);
-
-        final Collection<Move> whiteStandardLegalMoves = calculateLegalMoves(this.whitePieces);
-        final Collection<Move> blackStandardLegalMoves = calculateLegalMoves(this.blackPieces);
+        this.castlingRights = builder.castlingRights != null ? builder.castlingRights : calculateCastlingRights(this.boardPieces);
 
-        this.whitePlayer = new WhitePlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
-        this.blackPlayer = new BlackPlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
+        this.whitePlayer = new WhitePlayer(this);
+        this.blackPlayer = new BlackPlayer(this);
 
         this.currentPlayer = builder.nextMoveMaker.choosePlayer(this.whitePlayer, this.blackPlayer);
+        this.zobristKey = builder.zobristKey != null ? builder.zobristKey : calculateZobristKey();
     }
 
     @Override
     public String toString() {
         final StringBuilder builder = new StringBuilder();
         for (int i = 0; i < 64; i++) {
-            final String tileText = this.gameBoard.get(i).toString();
+            final String tileText = getSquare(i).toString();
             builder.append(String.format("%3s", tileText));
             if ((i + 1) % 8 == 0) {
                 builder.append("\n");
@@ -59,81 +87,273 @@ public class Board {
         final Builder builder = new Builder();
 
         // Black Pieces (top two ranks)
-        builder.setPiece(new Rook(0, Alliance.BLACK));
-        builder.setPiece(new Knight(1, Alliance.BLACK));
-        builder.setPiece(new Bishop(2, Alliance.BLACK));
-        builder.setPiece(new Queen(3, Alliance.BLACK));
-        builder.setPiece(new King(4, Alliance.BLACK));
-        builder.setPiece(new Bishop(5, Alliance.BLACK));
-        builder.setPiece(new Knight(6, Alliance.BLACK));
-        builder.setPiece(new Rook(7, Alliance.BLACK));
-        for (int i = 8; i < 16; i++) builder.setPiece(new Pawn(i, Alliance.BLACK));
+        builder.setPiece(Rook.create(0, Alliance.BLACK));
+        builder.setPiece(Knight.create(1, Alliance.BLACK));
+        builder.setPiece(Bishop.create(2, Alliance.BLACK));
+        builder.setPiece(Queen.create(3, Alliance.BLACK));
+        builder.setPiece(King.create(4, Alliance.BLACK));
+        builder.setPiece(Bishop.create(5, Alliance.BLACK));
+        builder.setPiece(Knight.create(6, Alliance.BLACK));
+        builder.setPiece(Rook.create(7, Alliance.BLACK));
+        for (int i = 8; i < 16; i++) builder.setPiece(Pawn.create(i, Alliance.BLACK));
 
         // White Pieces (bottom two ranks)
-        for (int i = 48; i < 56; i++) builder.setPiece(new Pawn(i, Alliance.WHITE));
-        builder.setPiece(new Rook(56, Alliance.WHITE));
-        builder.setPiece(new Knight(57, Alliance.WHITE));
-        builder.setPiece(new Bishop(58, Alliance.WHITE));
-        builder.setPiece(new Queen(59, Alliance.WHITE));
-        builder.setPiece(new King(60, Alliance.WHITE));
-        builder.setPiece(new Bishop(61, Alliance.WHITE));
-        builder.setPiece(new Knight(62, Alliance.WHITE));
-        builder.setPiece(new Rook(63, Alliance.WHITE));
+        for (int i = 48; i < 56; i++) builder.setPiece(Pawn.create(i, Alliance.WHITE));
+        builder.setPiece(Rook.create(56, Alliance.WHITE));
+        builder.setPiece(Knight.create(57, Alliance.WHITE));
+        builder.setPiece(Bishop.create(58, Alliance.WHITE));
+        builder.setPiece(Queen.create(59, Alliance.WHITE));
+        builder.setPiece(King.create(60, Alliance.WHITE));
+        builder.setPiece(Bishop.create(61, Alliance.WHITE));
+        builder.setPiece(Knight.create(62, Alliance.WHITE));
+        builder.setPiece(Rook.create(63, Alliance.WHITE));
         builder.setNextMoveMaker(Alliance.WHITE);
 
         return builder.build();
     }
 
-    private static List<Square> createGameBoard(final Builder builder) {
-        final List<Square> squares = new ArrayList<>(64);
-        for (int i = 0; i < 64; i++) {
-            squares.add(Square.createSquare(i, builder.boardConfig.get(i)));
-        }
-        return squares;
+    /**
+     * Index of the bitboard holding the pieces of one type and alliance.
+     */
+    private static int bitboardIndex(final Alliance alliance, final PieceType pieceType) {
+        return alliance.ordinal() * PieceType.values().length + pieceType.ordinal();
     }
 
-    private static Collection<Piece> calculateActivePieces(final List<Square> gameBoard, final Alliance alliance) {
-        final List<Piece> activePieces = new ArrayList<>();
-        for (final Square square : gameBoard) {
-            if (square.isOccupied() && square.getPiece().getPieceAlliance() == alliance) {
-                activePieces.add(square.getPiece());
+    private static long[] createPieceBitboards(final Piece[] boardPieces) {
+        final long[] bitboards = new long[Alliance.values().length * PieceType.values().length];
+        for (int i = 0; i < BoardUtils.NUM_SQUARES; i++) {
+            final Piece piece = boardPieces[i];
+            if (piece != null) {
+                bitboards[bitboardIndex(piece.getPieceAlliance(), piece.getPieceType())] |= 1L << i;
             }
         }
-        return activePieces;
+        return bitboards;
+    }
+
+    /**
+     * Castling rights of a board set up piece by piece: an unmoved king on its home square and an
+     * unmoved rook in the corner. Boards reached by a move inherit the rights from the move instead.
+     */
+    private static int calculateCastlingRights(final Piece[] boardPieces) {
+        int rights = 0;
+        if (isUnmoved(boardPieces[60], PieceType.KING, Alliance.WHITE)) {
+            if (isUnmoved(boardPieces[63], PieceType.ROOK, Alliance.WHITE)) rights |= BoardUtils.WHITE_KING_SIDE_CASTLE;
+            if (isUnmoved(boardPieces[56], PieceType.ROOK, Alliance.WHITE)) rights |= BoardUtils.WHITE_QUEEN_SIDE_CASTLE;
+        }
+        if (isUnmoved(boardPieces[4], PieceType.KING, Alliance.BLACK)) {
+            if (isUnmoved(boardPieces[7], PieceType.ROOK, Alliance.BLACK)) rights |= BoardUtils.BLACK_KING_SIDE_CASTLE;
+            if (isUnmoved(boardPieces[0], PieceType.ROOK, Alliance.BLACK)) rights |= BoardUtils.BLACK_QUEEN_SIDE_CASTLE;
+        }
+        return rights;
+    }
+
+    private static boolean isUnmoved(final Piece piece, final PieceType pieceType, final Alliance alliance) {
+        return piece != null && piece.getPieceType() == pieceType &&
+                piece.getPieceAlliance() == alliance && piece.isFirstMove();
     }
 
     /**
-     * Calculates all legal moves for a collection of pieces.
+     * Hashes the whole position; only used when no incrementally updated key was supplied.
      */
-    private Collection<Move> calculateLegalMoves(final Collection<Piece> pieces) {
-        final List<Move> legalMoves = new ArrayList<>();
-        for (final Piece piece : pieces) {
-            legalMoves.addAll(piece.calculateLegalMoves(this));
+    private long calculateZobristKey() {
+        long key = 0L;
+        long remaining = this.occupiedBitboard;
+        while (remaining != 0) {
+            final int square = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            final Piece piece = this.boardPieces[square];
+            key ^= Zobrist.getPieceKey(piece.getPieceAlliance(), piece.getPieceType(), square);
+        }
+        if (this.currentPlayer.getAlliance().isBlack()) {
+            key ^= Zobrist.getBlackToMoveKey();
+        }
+        key ^= Zobrist.getCastlingKey(this.castlingRights);
+        if (this.enPassantPawn != null) {
+            key ^= Zobrist.getEnPassantKey(this.enPassantPawn.getPiecePosition());
+        }
+        return key;
+    }
+
+    private static long calculateAllianceBitboard(final long[] pieceBitboards, final Alliance alliance) {
+        long allianceBitboard = 0L;
+        for (final PieceType pieceType : PieceType.values()) {
+            allianceBitboard |= pieceBitboards[bitboardIndex(alliance, pieceType)];
         }
-        return legalMoves;
+        return allianceBitboard;
+    }
+
+    private Collection<Piece> calculateActivePieces(final long allianceBitboard) {
+        final List<Piece> activePieces = new ArrayList<>(Long.bitCount(allianceBitboard));
+        long remaining = allianceBitboard;
+        while (remaining != 0) {
+            activePieces.add(this.boardPieces[Long.numberOfTrailingZeros(remaining)]);
+            remaining &= remaining - 1;
+        }
+        return Collections.unmodifiableList(activePieces);
     }
 
     // --- GETTERS ---
-    public Collection<Piece> getBlackPieces() { return this.blackPieces; }
-    public Collection<Piece> getWhitePieces() { return this.whitePieces; }
-    public Square getSquare(final int squareCoordinate) { return this.gameBoard.get(squareCoordinate); }
+    public Collection<Piece> getBlackPieces() {
+        Collection<Piece> pieces = this.blackPieces;
+        if (pieces == null) {
+            pieces = calculateActivePieces(this.blackBitboard);
+            this.blackPieces = pieces;
+        }
+        return pieces;
+    }
+
+    public Collection<Piece> getWhitePieces() {
+        Collection<Piece> pieces = this.whitePieces;
+        if (pieces == null) {
+            pieces = calculateActivePieces(this.whiteBitboard);
+            this.whitePieces = pieces;
+        }
+        return pieces;
+    }
+
+    /**
+     * Returns a view of one square; prefer {@link #getPiece(int)} or the bitboards in hot code.
+     */
+    public Square getSquare(final int squareCoordinate) {
+        return Square.createSquare(squareCoordinate, this.boardPieces[squareCoordinate]);
+    }
+
+    /**
+     * Returns the piece on a square, or null if the square is empty.
+     */
+    public Piece getPiece(final int squareCoordinate) { return this.boardPieces[squareCoordinate]; }
+
+    /**
+     * Returns the bitboard of all pieces of one type and alliance.
+     */
+    public long getPieceBitboard(final Alliance alliance, final PieceType pieceType) {
+        return this.pieceBitboards[bitboardIndex(alliance, pieceType)];
+    }
+
+    /**
+     * Returns the bitboard of every square occupied by the given alliance.
+     */
+    public long getAllianceBitboard(final Alliance alliance) {
+        return alliance.isWhite() ? this.whiteBitboard : this.blackBitboard;
+    }
+
+    /**
+     * Returns the bitboard of every occupied square.
+     */
+    public long getOccupiedBitboard() { return this.occupiedBitboard; }
+
+    // --- ATTACK QUERIES ---
+
+    /**
+     * Finds the pieces of an alliance that attack a square, probing outward from the square with
+     * the attack tables. Sliders are blocked by the given occupancy, so callers can ask about
+     * hypothetical positions (e.g. with a king or a captured pawn lifted off the board).
+     *
+     * @param square the square to test
+     * @param attacker the alliance whose pieces count
+     * @param occupied the occupancy that blocks sliding pieces
+     * @return bitboard of attacking pieces
+     */
+    public long getAttackersOf(final int square, final Alliance attacker, final long occupied) {
+        final long queens = getPieceBitboard(attacker, PieceType.QUEEN);
+        // A pawn attacks the square if a pawn of the other colour standing there would attack it back
+        return (BoardUtils.PAWN_ATTACKS[attacker.getOpponent().ordinal()][square] & getPieceBitboard(attacker, PieceType.PAWN)) |
+                (BoardUtils.KNIGHT_ATTACKS[square] & getPieceBitboard(attacker, PieceType.KNIGHT)) |
+                (BoardUtils.KING_ATTACKS[square] & getPieceBitboard(attacker, PieceType.KING)) |
+                (MagicBitboards.getBishopAttacks(square, occupied) & (getPieceBitboard(attacker, PieceType.BISHOP) | queens)) |
+                (MagicBitboards.getRookAttacks(square, occupied) & (getPieceBitboard(attacker, PieceType.ROOK) | queens));
+    }
+
+    /**
+     * Checks whether any piece of an alliance attacks a square. Instead of generating the alliance's
+     * moves, it probes outward from the square: a pawn, knight or king pattern, then the bishop and
+     * rook rays, stopping at the first attacker found.
+     *
+     * @param square the square to test
+     * @param byAlliance the alliance whose attacks count
+     * @return true if the square is attacked
+     */
+    public boolean isSquareAttacked(final int square, final Alliance byAlliance) {
+        // A pawn attacks the square if a pawn of the other colour standing there would attack it back
+        if ((BoardUtils.PAWN_ATTACKS[byAlliance.getOpponent().ordinal()][square] & getPieceBitboard(byAlliance, PieceType.PAWN)) != 0 ||
+                (BoardUtils.KNIGHT_ATTACKS[square] & getPieceBitboard(byAlliance, PieceType.KNIGHT)) != 0 ||
+                (BoardUtils.KING_ATTACKS[square] & getPieceBitboard(byAlliance, PieceType.KING)) != 0) {
+            return true;
+        }
+        final long queens = getPieceBitboard(byAlliance, PieceType.QUEEN);
+        return (MagicBitboards.getBishopAttacks(square, this.occupiedBitboard) & (getPieceBitboard(byAlliance, PieceType.BISHOP) | queens)) != 0 ||
+                (MagicBitboards.getRookAttacks(square, this.occupiedBitboard) & (getPieceBitboard(byAlliance, PieceType.ROOK) | queens)) != 0;
+    }
+
+    /**
+     * Calculates every square attacked by an alliance, with sliders blocked by the given occupancy.
+     *
+     * @param alliance the attacking alliance
+     * @param occupied the occupancy that blocks sliding pieces
+     * @return bitboard of attacked squares
+     */
+    public long calculateAttackedSquares(final Alliance alliance, final long occupied) {
+        long attacks = 0L;
+        long pieces = getAllianceBitboard(alliance);
+        while (pieces != 0) {
+            final int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            switch (this.boardPieces[square].getPieceType()) {
+                case PAWN: attacks |= BoardUtils.PAWN_ATTACKS[alliance.ordinal()][square]; break;
+                case KNIGHT: attacks |= BoardUtils.KNIGHT_ATTACKS[square]; break;
+                case BISHOP: attacks |= MagicBitboards.getBishopAttacks(square, occupied); break;
+                case ROOK: attacks |= MagicBitboards.getRookAttacks(square, occupied); break;
+                case QUEEN: attacks |= MagicBitboards.getQueenAttacks(square, occupied); break;
+                default: attacks |= BoardUtils.KING_ATTACKS[square]; break;
+            }
+        }
+        return attacks;
+    }
+
     public Pawn getEnPassantPawn() { return this.enPassantPawn; }
+
+    /**
+     * Returns the castling rights still available, a combination of the BoardUtils *_CASTLE bits.
+     */
+    public int getCastlingRights() { return this.castlingRights; }
+
+    /**
+     * Returns the 64-bit Zobrist key of this position. Equal positions reached by different move
+     * orders have equal keys, which makes it the key for transposition tables and repetition checks.
+     */
+    public long getZobristKey() { return this.zobristKey; }
     public Player getCurrentPlayer() { return this.currentPlayer; }
     public BlackPlayer getBlackPlayer() { return this.blackPlayer; }
     public WhitePlayer getWhitePlayer() { return this.whitePlayer; }
 
+    /**
+     * Checkmate, stalemate or neither, for the player to move. Computed once per board from the
+     * player's strictly legal moves, so repeated queries from the search, the evaluator and the
+     * GUI cost nothing.
+     */
+    public GameStatus getGameStatus() {
+        GameStatus status = this.gameStatus;
+        if (status == null) {
+            status = GameStatus.of(this.currentPlayer.isInCheck(), !this.currentPlayer.getLegalMoves().isEmpty());
+            this.gameStatus = status;
+        }
+        return status;
+    }
+
     /**
      * Builder class for constructing a Board instance.
      */
     public static class Builder {
-        Map<Integer, Piece> boardConfig;
+        Piece[] boardConfig;
         Alliance nextMoveMaker;
         Pawn enPassantPawn;
+        Integer castlingRights;
+        Long zobristKey;
 
-        public Builder() { this.boardConfig = new HashMap<>(); }
+        public Builder() { this.boardConfig = new Piece[BoardUtils.NUM_SQUARES]; }
 
         public Builder setPiece(final Piece piece) {
-            this.boardConfig.put(piece.getPiecePosition(), piece);
+            this.boardConfig[piece.getPiecePosition()] = piece;
             return this;
         }
 
@@ -144,6 +364,25 @@ public class Board {
 
         public void setEnPassantPawn(Pawn enPassantPawn) { this.enPassantPawn = enPassantPawn; }
 
+        /**
+         * Sets the castling rights, a combination of the BoardUtils *_CASTLE bits. Moves pass on the
+         * rights of the previous board minus the ones they give up; without it the rights are derived
+         * from unmoved kings and rooks.
+         */
+        public Builder setCastlingRights(final int castlingRights) {
+            this.castlingRights = castlingRights;
+            return this;
+        }
+
+        /**
+         * Supplies the key of the board being built, updated incrementally by a move, so the
+         * position does not have to be hashed again. Without it the board hashes itself.
+         */
+        public Builder setZobristKey(final long zobristKey) {
+            this.zobristKey = zobristKey;
+            return this;
+        }
+
         public Board build() { return new Board(this); }
     }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package entities;
+
+/**
+ * Represents whether the game can go on from a position, from the point of view of the side to move.
+ * Computed once per position from the number of strictly legal moves and whether the king is in check.
+ */
+public enum GameStatus {
+
+    /** The side to move has at least one legal move */
+    IN_PROGRESS {
+        @Override
+        public boolean isGameOver() {
+            return false;
+        }
+    },
+
+    /** The side to move is in check and has no legal move */
+    CHECKMATE {
+        @Override
+        public boolean isGameOver() {
+            return true;
+        }
+    },
+
+    /** The side to move is not in check but has no legal move */
+    STALEMATE {
+        @Override
+        public boolean isGameOver() {
+            return true;
+        }
+    };
+
+    /**
+     * Derives the status from the two facts it depends on.
+     *
+     * @param inCheck whether the side to move is in check
+     * @param hasLegalMoves whether the side to move has any legal move
+     * @return the status of the position
+     */
+    public static GameStatus of(final boolean inCheck, final boolean hasLegalMoves) {
+        if (hasLegalMoves) {
+            return IN_PROGRESS;
+        }
+        return inCheck ? CHECKMATE : STALEMATE;
+    }
+
+    /**
+     * Returns whether the game has ended in this position.
+     * @return true for checkmate and stalemate, false otherwise
+     */
+    public abstract boolean isGameOver();
+}
@@ -4,8 +4,6 @@ import core.Move;
 import core.Move.*; // Import all inner move classes
 import utils.BoardUtils;
 
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 
 /**
@@ -14,126 +12,150 @@ import java.util.List;
  */
 public class Pawn extends Piece {
 
-    /** Candidate offsets for pawn movement:
-     * 8 = single step forward
-     * 16 = double step forward from starting position
-     * 7 and 9 = diagonal captures (also used for en passant)
-     */
-    private final static int[] CANDIDATE_MOVE_COORDINATES = {8, 16, 7, 9};
+    /** Pieces a pawn may promote to, best first so the GUI's default pick is a Queen. */
+    private static final PieceType[] PROMOTION_TYPES = {
+            PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT
+    };
 
-    /** Constructs a Pawn with default first move as true */
-    public Pawn(final int piecePosition, final Alliance pieceAlliance) {
-        super(piecePosition, pieceAlliance, PieceType.PAWN, true);
-    }
+    private static final Pawn[] INTERNED_PAWNS = internPieces(new Pawn[INTERNED_PIECES_PER_TYPE], Pawn::new);
 
-    /** Constructs a Pawn with explicit first-move status */
-    public Pawn(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+    private Pawn(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
         super(piecePosition, pieceAlliance, PieceType.PAWN, isFirstMove);
     }
 
+    /** Returns the interned Pawn with default first move as true */
+    public static Pawn create(final int piecePosition, final Alliance pieceAlliance) {
+        return create(piecePosition, pieceAlliance, true);
+    }
+
+    /** Returns the interned Pawn with explicit first-move status */
+    public static Pawn create(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        return INTERNED_PAWNS[internIndex(piecePosition, pieceAlliance, isFirstMove)];
+    }
+
+    /**
+     * Calculates the set of squares a pawn of the given alliance attacks diagonally (offsets 7 and 9),
+     * read from the precomputed {@link BoardUtils#PAWN_ATTACKS} table.
+     *
+     * @param piecePosition the square the pawn stands on
+     * @param pieceAlliance the pawn's alliance, which fixes its direction
+     * @return bitboard of attacked squares
+     */
+    public static long calculateAttackBitboard(final int piecePosition, final Alliance pieceAlliance) {
+        return BoardUtils.PAWN_ATTACKS[pieceAlliance.ordinal()][piecePosition];
+    }
+
     /**
-     * Calculates all legal moves for this pawn on the given board.
+     * Adds all legal moves for this pawn on the given board to a move list.
      *
      * @param board the board to calculate moves on
-     * @return a collection of legal moves
+     * @param destinationMask the squares the pawn may move to (en passant is checked exactly instead)
+     * @param legalMoves the list receiving the legal moves
      */
     @Override
-    public Collection<Move> calculateLegalMoves(final Board board) {
-
-        final List<Move> legalMoves = new ArrayList<>();
-
-        for (final int currentCandidateOffset : CANDIDATE_MOVE_COORDINATES) {
-
-            // Compute destination considering pawn direction (up for WHITE, down for BLACK)
-            final int candidateDestinationCoordinate =
-                    this.getPiecePosition() + (this.getPieceAlliance().getDirection() * currentCandidateOffset);
-
-            if (!BoardUtils.isValidSquareCoordinate(candidateDestinationCoordinate)) {
-                continue; // Skip invalid squares
-            }
-
-            // --- Single Step Move (Forward by 1) ---
-            if (currentCandidateOffset == 8 && !board.getSquare(candidateDestinationCoordinate).isOccupied()) {
-                if (this.getPieceAlliance().isPawnPromotionSquare(candidateDestinationCoordinate)) {
-                    // Wrap in a promotion if reaching last rank
-                    legalMoves.add(new PawnPromotion(new PawnMove(board, this, candidateDestinationCoordinate)));
-                } else {
-                    legalMoves.add(new PawnMove(board, this, candidateDestinationCoordinate));
-                }
-            }
-
-            // --- Double Step Move (Forward by 2) ---
-            else if (currentCandidateOffset == 16 && this.isFirstMove() &&
-                    ((BoardUtils.SEVENTH_RANK[this.getPiecePosition()] && this.getPieceAlliance().isBlack()) ||
-                            (BoardUtils.SECOND_RANK[this.getPiecePosition()] && this.getPieceAlliance().isWhite()))) {
-
-                final int behindCandidateDestinationCoordinate =
-                        this.getPiecePosition() + (this.getPieceAlliance().getDirection() * 8);
+    public void addLegalMoves(final Board board, final long destinationMask, final List<Move> legalMoves) {
+        addQuietMoves(board, destinationMask, legalMoves);
+        addCaptureMoves(board, destinationMask, legalMoves);
+    }
 
-                // Only allowed if both intermediate and destination squares are empty
-                if (!board.getSquare(behindCandidateDestinationCoordinate).isOccupied() &&
-                        !board.getSquare(candidateDestinationCoordinate).isOccupied()) {
-                    legalMoves.add(new PawnJump(board, this, candidateDestinationCoordinate));
+    /**
+     * Adds the forward pushes of this pawn, including promotions by push.
+     *
+     * @param board the board to calculate moves on
+     * @param destinationMask the squares the pawn may move to
+     * @param legalMoves the list receiving the legal moves
+     */
+    @Override
+    public void addQuietMoves(final Board board, final long destinationMask, final List<Move> legalMoves) {
+
+        final long emptySquares = ~board.getOccupiedBitboard();
+        final int alliance = this.getPieceAlliance().ordinal();
+
+        // --- Single Step Move (Forward by 1) ---
+        final long singleStep = BoardUtils.PAWN_PUSHES[alliance][this.getPiecePosition()] & emptySquares;
+        if ((singleStep & destinationMask) != 0) {
+            final int candidateDestinationCoordinate = Long.numberOfTrailingZeros(singleStep);
+            if (this.getPieceAlliance().isPawnPromotionSquare(candidateDestinationCoordinate)) {
+                // Wrap in a promotion if reaching last rank, one move per promotion piece
+                for (final PieceType promotionType : PROMOTION_TYPES) {
+                    legalMoves.add(new PawnPromotion(new PawnMove(board, this, candidateDestinationCoordinate), promotionType));
                 }
+            } else {
+                legalMoves.add(new PawnMove(board, this, candidateDestinationCoordinate));
             }
+        }
 
-            // --- Diagonal Captures & En Passant ---
-            else if (currentCandidateOffset == 7 &&
-                    !((BoardUtils.EIGHTH_COLUMN[this.getPiecePosition()] && this.getPieceAlliance().isWhite()) ||
-                            (BoardUtils.FIRST_COLUMN[this.getPiecePosition()] && this.getPieceAlliance().isBlack()))) {
-
-                handlePawnAttackOrEnPassant(board, legalMoves, candidateDestinationCoordinate, 7);
-            }
-            else if (currentCandidateOffset == 9 &&
-                    !((BoardUtils.FIRST_COLUMN[this.getPiecePosition()] && this.getPieceAlliance().isWhite()) ||
-                            (BoardUtils.EIGHTH_COLUMN[this.getPiecePosition()] && this.getPieceAlliance().isBlack()))) {
-
-                handlePawnAttackOrEnPassant(board, legalMoves, candidateDestinationCoordinate, 9);
+        // --- Double Step Move (Forward by 2) ---
+        // Only allowed from the starting rank, with both intermediate and destination squares empty
+        if (singleStep != 0 && this.isFirstMove()) {
+            final long doubleStep = BoardUtils.PAWN_DOUBLE_PUSHES[alliance][this.getPiecePosition()] & emptySquares & destinationMask;
+            if (doubleStep != 0) {
+                legalMoves.add(new PawnJump(board, this, Long.numberOfTrailingZeros(doubleStep)));
             }
         }
-
-        return legalMoves;
     }
 
     /**
-     * Handles diagonal pawn attacks and en passant logic.
+     * Adds the diagonal captures of this pawn, including capture promotions and en passant.
      *
-     * @param board the current board
-     * @param legalMoves the list to append legal moves
-     * @param candidateDestinationCoordinate the destination square
-     * @param offset the current candidate offset (7 or 9)
+     * @param board the board to calculate moves on
+     * @param destinationMask the squares the pawn may move to (en passant is checked exactly instead)
+     * @param legalMoves the list receiving the legal moves
      */
-    private void handlePawnAttackOrEnPassant(final Board board, final List<Move> legalMoves,
-                                             final int candidateDestinationCoordinate, final int offset) {
-        // Capture on occupied square
-        if (board.getSquare(candidateDestinationCoordinate).isOccupied()) {
-            final Piece pieceOnCandidate = board.getSquare(candidateDestinationCoordinate).getPiece();
-            if (this.getPieceAlliance() != pieceOnCandidate.getPieceAlliance()) {
-                if (this.getPieceAlliance().isPawnPromotionSquare(candidateDestinationCoordinate)) {
-                    legalMoves.add(new PawnPromotion(new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate)));
-                } else {
-                    legalMoves.add(new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate));
+    @Override
+    public void addCaptureMoves(final Board board, final long destinationMask, final List<Move> legalMoves) {
+
+        final long emptySquares = ~board.getOccupiedBitboard();
+
+        // --- Diagonal Captures ---
+        final long attacks = calculateAttackBitboard(this.getPiecePosition(), this.getPieceAlliance());
+        long captures = attacks & board.getAllianceBitboard(this.getPieceAlliance().getOpponent()) & destinationMask;
+        while (captures != 0) {
+            final int candidateDestinationCoordinate = Long.numberOfTrailingZeros(captures);
+            captures &= captures - 1;
+            final Piece pieceOnCandidate = board.getPiece(candidateDestinationCoordinate);
+            if (this.getPieceAlliance().isPawnPromotionSquare(candidateDestinationCoordinate)) {
+                for (final PieceType promotionType : PROMOTION_TYPES) {
+                    legalMoves.add(new PawnPromotion(
+                            new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate), promotionType));
                 }
+            } else {
+                legalMoves.add(new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate));
             }
         }
-        // En Passant
-        else if (board.getEnPassantPawn() != null) {
-            final int enPassantTarget = offset == 7
-                    ? this.getPiecePosition() + (this.getPieceAlliance().getOppositeDirection() * 1)
-                    : this.getPiecePosition() - (this.getPieceAlliance().getOppositeDirection() * 1);
-
-            if (board.getEnPassantPawn().getPiecePosition() == enPassantTarget) {
-                final Piece pieceOnCandidate = board.getEnPassantPawn();
-                if (this.getPieceAlliance() != pieceOnCandidate.getPieceAlliance()) {
-                    legalMoves.add(new PawnEnPassantAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate));
-                }
+
+        // --- En Passant ---
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        if (enPassantPawn != null && enPassantPawn.getPieceAlliance() != this.getPieceAlliance()) {
+            // The capturing pawn lands on the square the enemy pawn skipped over
+            final int candidateDestinationCoordinate =
+                    enPassantPawn.getPiecePosition() + this.getPieceAlliance().getDirection() * 8;
+            if ((attacks & emptySquares & (1L << candidateDestinationCoordinate)) != 0 &&
+                    isEnPassantSafe(board, candidateDestinationCoordinate, enPassantPawn)) {
+                legalMoves.add(new PawnEnPassantAttackMove(board, this, candidateDestinationCoordinate, enPassantPawn));
             }
         }
     }
 
+    /**
+     * En passant removes two pawns from one rank at once, which can expose the king in ways a pin
+     * mask does not see, so the resulting position is checked directly.
+     */
+    private boolean isEnPassantSafe(final Board board, final int destination, final Pawn capturedPawn) {
+        final long king = board.getPieceBitboard(this.getPieceAlliance(), PieceType.KING);
+        if (king == 0) {
+            return true;
+        }
+        final long occupiedAfter = board.getOccupiedBitboard() ^ (1L << this.getPiecePosition()) ^
+                (1L << destination) ^ (1L << capturedPawn.getPiecePosition());
+        // The captured pawn is gone, so it no longer counts as an attacker
+        return (board.getAttackersOf(Long.numberOfTrailingZeros(king), this.getPieceAlliance().getOpponent(), occupiedAfter)
+                & occupiedAfter) == 0;
+    }
+
     @Override
     public Pawn movePiece(final Move move) {
-        return new Pawn(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return create(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
     }
 
     @Override
@@ -144,9 +166,9 @@ public class Pawn extends Piece {
     /**
      * Returns the piece that this pawn promotes to (default is Queen).
      *
-     * @return a new Queen piece for promotion
+     * @return the interned Queen for promotion
      */
     public Piece getPromotionPiece() {
-        return new Queen(this.getPiecePosition(), this.getPieceAlliance(), false);
+        return Queen.create(this.getPiecePosition(), this.getPieceAlliance(), false);
     }
 }
@@ -1,7 +1,14 @@
 package entities;
 
 import core.Move;
+import core.Move.AttackMove;
+import core.Move.MajorMove;
+
+import utils.BoardUtils;
+
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Abstract base class for all chess pieces.
@@ -10,9 +17,14 @@ import java.util.Collection;
  * <ul>
  *     <li>Store fundamental attributes: position, alliance, type, and first-move status.</li>
  *     <li>Provide methods for calculating legal moves.</li>
- *     <li>Provide an immutable move method that returns a new piece with updated position.</li>
+ *     <li>Provide an immutable move method that returns the piece with updated position.</li>
  * </ul>
  * </p>
+ *
+ * <p>Pieces are flyweights: there are only 2 alliances x 64 squares x 2 first-move states of each
+ * type, so every subclass builds all of them once and hands them out from static factory methods
+ * ({@code Rook.create(...)}, {@link #create(PieceType, int, Alliance, boolean)}). Making a move
+ * never allocates a piece, and two pieces are equal exactly when they are the same instance.</p>
  */
 public abstract class Piece {
 
@@ -22,15 +34,26 @@ public abstract class Piece {
     private final boolean isFirstMove;
     private final int cachedHashCode;
 
+    /** Number of distinct pieces of one type: 2 alliances x 2 first-move states x 64 squares. */
+    protected static final int INTERNED_PIECES_PER_TYPE = 4 * BoardUtils.NUM_SQUARES;
+
+    /**
+     * Constructor shape shared by every piece type, used to fill the interned tables.
+     */
+    @FunctionalInterface
+    protected interface PieceConstructor<T extends Piece> {
+        T construct(int piecePosition, Alliance pieceAlliance, boolean isFirstMove);
+    }
+
     /**
-     * Constructs a chess piece.
+     * Constructs a chess piece. Only called while a subclass fills its interned table.
      *
      * @param piecePosition the 0-63 index of the square
      * @param pieceAlliance the alliance (WHITE or BLACK)
      * @param pieceType the type of the piece (PAWN, KNIGHT, etc.)
      * @param isFirstMove whether the piece has moved yet
      */
-    public Piece(final int piecePosition,
+    protected Piece(final int piecePosition,
                  final Alliance pieceAlliance,
                  final PieceType pieceType,
                  final boolean isFirstMove) {
@@ -41,6 +64,53 @@ public abstract class Piece {
         this.cachedHashCode = computeHashCode();
     }
 
+    /**
+     * Returns the interned piece of the given type.
+     *
+     * @param pieceType the type of the piece
+     * @param piecePosition the 0-63 index of the square
+     * @param pieceAlliance the alliance (WHITE or BLACK)
+     * @param isFirstMove whether the piece has moved yet
+     * @return the shared instance for that type, square, alliance and first-move status
+     */
+    public static Piece create(final PieceType pieceType,
+                               final int piecePosition,
+                               final Alliance pieceAlliance,
+                               final boolean isFirstMove) {
+        switch (pieceType) {
+            case PAWN: return Pawn.create(piecePosition, pieceAlliance, isFirstMove);
+            case KNIGHT: return Knight.create(piecePosition, pieceAlliance, isFirstMove);
+            case BISHOP: return Bishop.create(piecePosition, pieceAlliance, isFirstMove);
+            case ROOK: return Rook.create(piecePosition, pieceAlliance, isFirstMove);
+            case QUEEN: return Queen.create(piecePosition, pieceAlliance, isFirstMove);
+            default: return King.create(piecePosition, pieceAlliance, isFirstMove);
+        }
+    }
+
+    /**
+     * Fills an interned table with every piece a subclass can produce.
+     *
+     * @param table the table to fill, of length {@link #INTERNED_PIECES_PER_TYPE}
+     * @param constructor the subclass constructor
+     * @return the filled table
+     */
+    protected static <T extends Piece> T[] internPieces(final T[] table, final PieceConstructor<T> constructor) {
+        for (final Alliance alliance : Alliance.values()) {
+            for (int square = 0; square < BoardUtils.NUM_SQUARES; square++) {
+                table[internIndex(square, alliance, true)] = constructor.construct(square, alliance, true);
+                table[internIndex(square, alliance, false)] = constructor.construct(square, alliance, false);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Position of a piece in its type's interned table.
+     */
+    protected static int internIndex(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        return ((pieceAlliance.ordinal() << 1) | (isFirstMove ? 1 : 0)) * BoardUtils.NUM_SQUARES + piecePosition;
+    }
+
     /**
      * Calculates all legal moves for this piece on the given board.
      *
@@ -50,16 +120,90 @@ public abstract class Piece {
      * @param board the board to evaluate
      * @return a collection of legal moves
      */
-    public abstract Collection<Move> calculateLegalMoves(final Board board);
+    public Collection<Move> calculateLegalMoves(final Board board) {
+        final List<Move> legalMoves = new ArrayList<>();
+        addLegalMoves(board, legalMoves);
+        return legalMoves;
+    }
 
     /**
-     * Returns a new piece with updated position after a move.
+     * Appends all legal moves for this piece to a caller-owned list, so a player can
+     * collect the moves of every piece into one list without intermediate copies.
+     *
+     * @param board the board to evaluate
+     * @param moves the list receiving the moves
+     */
+    public void addLegalMoves(final Board board, final List<Move> moves) {
+        addLegalMoves(board, ~0L, moves);
+    }
+
+    /**
+     * Appends the moves of this piece whose destination is in the given mask. The player uses the
+     * mask to keep pinned pieces on their pin line and, when in check, to allow only moves that
+     * capture the checker or block the check, so every move added is strictly legal.
+     *
+     * @param board the board to evaluate
+     * @param destinationMask the squares this piece may move to
+     * @param moves the list receiving the moves
+     */
+    public abstract void addLegalMoves(final Board board, final long destinationMask, final List<Move> moves);
+
+    /**
+     * Appends only the moves that capture something, for staged generation and quiescence search.
+     *
+     * @param board the board to evaluate
+     * @param destinationMask the squares this piece may move to
+     * @param moves the list receiving the moves
+     */
+    public void addCaptureMoves(final Board board, final long destinationMask, final List<Move> moves) {
+        addLegalMoves(board, destinationMask & board.getAllianceBitboard(this.pieceAlliance.getOpponent()), moves);
+    }
+
+    /**
+     * Appends only the moves onto empty squares. Together with {@link #addCaptureMoves} this yields
+     * exactly the moves of {@link #addLegalMoves(Board, long, List)}.
+     *
+     * @param board the board to evaluate
+     * @param destinationMask the squares this piece may move to
+     * @param moves the list receiving the moves
+     */
+    public void addQuietMoves(final Board board, final long destinationMask, final List<Move> moves) {
+        addLegalMoves(board, destinationMask & ~board.getOccupiedBitboard(), moves);
+    }
+
+    /**
+     * Turns a set of destination squares into moves for this piece.
+     *
+     * <p>Empty destinations become {@link MajorMove}s, squares holding an enemy piece become
+     * {@link AttackMove}s and squares holding a friendly piece are skipped.</p>
+     *
+     * @param board the board the moves are made on
+     * @param destinations bitboard of candidate destination squares
+     * @param moves the list receiving the moves to every usable destination
+     */
+    protected void addMoves(final Board board, final long destinations, final List<Move> moves) {
+        final long enemyPieces = board.getAllianceBitboard(this.pieceAlliance.getOpponent());
+        long remaining = destinations & ~board.getAllianceBitboard(this.pieceAlliance);
+        while (remaining != 0) {
+            final int candidateDestinationCoordinate = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            if ((enemyPieces & (1L << candidateDestinationCoordinate)) == 0) {
+                moves.add(new MajorMove(board, this, candidateDestinationCoordinate));
+            } else {
+                moves.add(new AttackMove(board, this, candidateDestinationCoordinate,
+                        board.getPiece(candidateDestinationCoordinate)));
+            }
+        }
+    }
+
+    /**
+     * Returns the piece with updated position after a move.
      *
      * <p>Immutability ensures the current piece remains unchanged,
      * which is essential for undo/redo and AI simulations.</p>
      *
      * @param move the move to apply
-     * @return a new Piece instance at the new position
+     * @return the interned Piece at the new position
      */
     public abstract Piece movePiece(Move move);
 
@@ -83,7 +227,7 @@ public abstract class Piece {
     // --- HASHCODE / EQUALITY ---
     /**
      * Computes a hash code for the piece based on type, alliance, position, and first-move status.
-     * Caches the result to make hash-based collections efficient.
+     * Computed once per interned piece, so hash-based collections stay cheap and stable across runs.
      */
     private int computeHashCode() {
         int result = pieceType.hashCode();
@@ -98,14 +242,11 @@ public abstract class Piece {
         return this.cachedHashCode;
     }
 
+    /**
+     * Pieces are interned, so equal pieces are always the same instance.
+     */
     @Override
-    public boolean equals(Object other) {
-        if (this == other) return true;
-        if (!(other instanceof Piece)) return false;
-        final Piece otherPiece = (Piece) other;
-        return piecePosition == otherPiece.getPiecePosition()
-                && pieceType == otherPiece.getPieceType()
-                && pieceAlliance == otherPiece.getPieceAlliance()
-                && isFirstMove == otherPiece.isFirstMove();
+    public boolean equals(final Object other) {
+        return this == other;
     }
 }
@@ -1,10 +1,8 @@
 package entities;
 
 import core.Move;
-import utils.BoardUtils;
+import utils.MagicBitboards;
 
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 
 /**
@@ -14,108 +12,73 @@ import java.util.List;
  */
 public class Queen extends Piece {
 
-    // Offsets for all 8 directions a queen can move
-    private static final int[] CANDIDATE_MOVE_VECTOR_COORDINATES = {-9, -8, -7, -1, 1, 7, 8, 9};
+    private static final Queen[] INTERNED_QUEENS = internPieces(new Queen[INTERNED_PIECES_PER_TYPE], Queen::new);
+
+    private Queen(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        super(piecePosition, pieceAlliance, PieceType.QUEEN, isFirstMove);
+    }
 
     /**
-     * Constructs a new Queen.
+     * Returns the interned, unmoved Queen.
      *
      * @param piecePosition the position of the queen on the board (0-63)
      * @param pieceAlliance the alliance/color of the queen
+     * @return the shared Queen instance
      */
-    public Queen(final int piecePosition, final Alliance pieceAlliance) {
-        super(piecePosition, pieceAlliance, PieceType.QUEEN, true);
+    public static Queen create(final int piecePosition, final Alliance pieceAlliance) {
+        return create(piecePosition, pieceAlliance, true);
     }
 
     /**
-     * Constructs a Queen with information about whether it has moved before.
+     * Returns the interned Queen with information about whether it has moved before.
      *
      * @param piecePosition the position of the queen on the board (0-63)
      * @param pieceAlliance the alliance/color of the queen
      * @param isFirstMove   whether this queen has moved before
+     * @return the shared Queen instance
      */
-    public Queen(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
-        super(piecePosition, pieceAlliance, PieceType.QUEEN, isFirstMove);
+    public static Queen create(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        return INTERNED_QUEENS[internIndex(piecePosition, pieceAlliance, isFirstMove)];
+    }
+
+    /**
+     * Calculates the set of squares a Queen on the given square attacks, sliding along each
+     * direction until blocked by a piece (the blocker's square is included) or the board edge.
+     * The result is a single lookup in the precomputed {@link MagicBitboards} tables.
+     *
+     * @param piecePosition the square the Queen stands on
+     * @param occupied bitboard of every occupied square
+     * @return bitboard of attacked squares
+     */
+    public static long calculateAttackBitboard(final int piecePosition, final long occupied) {
+        return MagicBitboards.getQueenAttacks(piecePosition, occupied);
     }
 
     /**
-     * Calculates all legal moves for this queen from its current position.
+     * Adds all legal moves for this queen from its current position to a move list.
      *
      * @param board the board on which to calculate moves
-     * @return a collection of legal moves
+     * @param destinationMask the squares it may move to
+     * @param moves the list receiving the legal moves
      */
     @Override
-    public Collection<Move> calculateLegalMoves(final Board board) {
-
-        final List<Move> legalMoves = new ArrayList<>();
-
-        for (final int candidateOffset : CANDIDATE_MOVE_VECTOR_COORDINATES) {
-
-            int candidateDestinationCoordinate = this.getPiecePosition();
-
-            // keep moving in the current direction until an obstruction or board edge is reached
-            while (BoardUtils.isValidSquareCoordinate(candidateDestinationCoordinate)) {
-
-                if (isFirstColumnExclusion(candidateDestinationCoordinate, candidateOffset) ||
-                        isEighthColumnExclusion(candidateDestinationCoordinate, candidateOffset)) {
-                    break;
-                }
-
-                candidateDestinationCoordinate += candidateOffset;
-
-                if (!BoardUtils.isValidSquareCoordinate(candidateDestinationCoordinate)) {
-                    break;
-                }
-
-                final Square candidateSquare = board.getSquare(candidateDestinationCoordinate);
-
-                if (!candidateSquare.isOccupied()) {
-                    legalMoves.add(new Move.MajorMove(board, this, candidateDestinationCoordinate));
-                } else {
-                    final Piece pieceAtDestination = candidateSquare.getPiece();
-                    if (this.getPieceAlliance() != pieceAtDestination.getPieceAlliance()) {
-                        legalMoves.add(new Move.AttackMove(board, this, candidateDestinationCoordinate, pieceAtDestination));
-                    }
-                    // stop further movement in this direction after hitting a piece
-                    break;
-                }
-            }
-        }
-
-        return legalMoves;
+    public void addLegalMoves(final Board board, final long destinationMask, final List<Move> moves) {
+        addMoves(board, calculateAttackBitboard(this.getPiecePosition(), board.getOccupiedBitboard()) & destinationMask, moves);
     }
 
     /**
-     * Creates a new queen representing this piece after a move.
+     * Returns the queen representing this piece after a move.
      *
      * @param move the move to execute
-     * @return a new Queen at the destination coordinate
+     * @return the interned Queen at the destination coordinate
      */
     @Override
     public Queen movePiece(final Move move) {
-        return new Queen(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return create(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
     }
 
     @Override
     public String toString() {
         return PieceType.QUEEN.toString();
     }
-
-    // --- HELPER METHODS ---
-
-    /**
-     * Handles left-edge exclusions to prevent wraparound on the board.
-     */
-    private static boolean isFirstColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.FIRST_COLUMN[currentPosition] &&
-                (candidateOffset == -1 || candidateOffset == -9 || candidateOffset == 7);
-    }
-
-    /**
-     * Handles right-edge exclusions to prevent wraparound on the board.
-     */
-    private static boolean isEighthColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.EIGHTH_COLUMN[currentPosition] &&
-                (candidateOffset == 1 || candidateOffset == -7 || candidateOffset == 9);
-    }
 }
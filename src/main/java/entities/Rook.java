@@ -1,81 +1,51 @@
 package entities;
 
 import core.Move;
-import core.Move.MajorMove;
-import core.Move.AttackMove;
-import utils.BoardUtils;
+import utils.MagicBitboards;
 
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 
 public class Rook extends Piece {
 
-    private final static int[] CANDIDATE_MOVE_VECTOR_COORDINATES = {-8, -1, 1, 8};
+    private static final Rook[] INTERNED_ROOKS = internPieces(new Rook[INTERNED_PIECES_PER_TYPE], Rook::new);
 
-    public Rook(final int piecePosition, final Alliance pieceAlliance) {
-        super(piecePosition, pieceAlliance, PieceType.ROOK, true);
-    }
-
-    public Rook(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+    private Rook(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
         super(piecePosition, pieceAlliance, PieceType.ROOK, isFirstMove);
     }
 
-    @Override
-    public Collection<Move> calculateLegalMoves(final Board board) {
-        final List<Move> legalMoves = new ArrayList<>();
-
-        for (final int candidateOffset : CANDIDATE_MOVE_VECTOR_COORDINATES) {
-
-            int candidateDestinationCoordinate = this.getPiecePosition();
-
-            // Keep moving in this direction until blocked or edge of board
-            while (BoardUtils.isValidSquareCoordinate(candidateDestinationCoordinate)) {
-
-                if (isFirstColumnExclusion(candidateDestinationCoordinate, candidateOffset) ||
-                        isEighthColumnExclusion(candidateDestinationCoordinate, candidateOffset)) {
-                    break;
-                }
-
-                candidateDestinationCoordinate += candidateOffset;
-
-                if (!BoardUtils.isValidSquareCoordinate(candidateDestinationCoordinate)) {
-                    break;
-                }
+    public static Rook create(final int piecePosition, final Alliance pieceAlliance) {
+        return create(piecePosition, pieceAlliance, true);
+    }
 
-                final Square candidateSquare = board.getSquare(candidateDestinationCoordinate);
+    public static Rook create(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        return INTERNED_ROOKS[internIndex(piecePosition, pieceAlliance, isFirstMove)];
+    }
 
-                if (!candidateSquare.isOccupied()) {
-                    legalMoves.add(new MajorMove(board, this, candidateDestinationCoordinate));
-                } else {
-                    final Piece pieceAtDestination = candidateSquare.getPiece();
-                    if (this.getPieceAlliance() != pieceAtDestination.getPieceAlliance()) {
-                        legalMoves.add(new AttackMove(board, this, candidateDestinationCoordinate, pieceAtDestination));
-                    }
-                    break; // stop sliding once blocked
-                }
-            }
-        }
+    /**
+     * Calculates the set of squares a Rook on the given square attacks, sliding along each
+     * direction until blocked by a piece (the blocker's square is included) or the board edge.
+     * The result is a single lookup in the precomputed {@link MagicBitboards} tables.
+     *
+     * @param piecePosition the square the Rook stands on
+     * @param occupied bitboard of every occupied square
+     * @return bitboard of attacked squares
+     */
+    public static long calculateAttackBitboard(final int piecePosition, final long occupied) {
+        return MagicBitboards.getRookAttacks(piecePosition, occupied);
+    }
 
-        return legalMoves;
+    @Override
+    public void addLegalMoves(final Board board, final long destinationMask, final List<Move> moves) {
+        addMoves(board, calculateAttackBitboard(this.getPiecePosition(), board.getOccupiedBitboard()) & destinationMask, moves);
     }
 
     @Override
     public Rook movePiece(final Move move) {
-        return new Rook(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return create(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance(), false);
     }
 
     @Override
     public String toString() {
         return PieceType.ROOK.toString();
     }
-
-    //--HELPER METHODS--
-    private static boolean isFirstColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.FIRST_COLUMN[currentPosition] && candidateOffset == -1;
-    }
-
-    private static boolean isEighthColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.EIGHTH_COLUMN[currentPosition] && candidateOffset == 1;
-    }
 }
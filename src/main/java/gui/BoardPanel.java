@@ -79,6 +79,21 @@ public class BoardPanel extends GridPane {
         }
     }
 
+    /**
+     * Highlight a bitboard of destination squares for a given alliance.
+     */
+    public void highlightDestinations(final long destinations, final Alliance alliance) {
+        final Color highlightColor = alliance.isWhite() ?
+                Color.rgb(100, 255, 100, 0.6) : // green for white
+                Color.rgb(255, 100, 100, 0.6);  // red for black
+
+        long remaining = destinations;
+        while (remaining != 0) {
+            this.boardSquares.get(Long.numberOfTrailingZeros(remaining)).enableHighlight(highlightColor);
+            remaining &= remaining - 1;
+        }
+    }
+
     /**
      * Highlight the square where a piece was picked up.
      */
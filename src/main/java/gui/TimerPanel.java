@@ -86,6 +86,14 @@ public class TimerPanel extends HBox {
     }
     // ----------------------------------
 
+    /**
+     * @param alliance the side whose clock to read
+     * @return the whole seconds left on that side's clock
+     */
+    public long getSecondsLeft(Alliance alliance) {
+        return alliance.isWhite() ? whiteSecondsLeft : blackSecondsLeft;
+    }
+
     public void pause() {
         if (this.timeline != null) this.timeline.pause();
     }
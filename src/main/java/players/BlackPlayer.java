@@ -6,18 +6,23 @@ import core.Move.QueenSideCastleMove;
 import entities.Alliance;
 import entities.Board;
 import entities.Piece;
+import entities.PieceType;
 import entities.Rook;
+import utils.BoardUtils;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 public class BlackPlayer extends Player {
 
-    public BlackPlayer(final Board board,
-                       final Collection<Move> whiteStandardLegalMoves,
-                       final Collection<Move> blackStandardLegalMoves) {
-        super(board, blackStandardLegalMoves, whiteStandardLegalMoves);
+    // Squares between the king and the rook that must be empty to castle
+    private static final long KING_SIDE_CASTLE_PATH = (1L << 5) | (1L << 6);
+    private static final long QUEEN_SIDE_CASTLE_PATH = (1L << 1) | (1L << 2) | (1L << 3);
+
+    public BlackPlayer(final Board board) {
+        super(board);
     }
 
     @Override
@@ -36,65 +41,28 @@ public class BlackPlayer extends Player {
     }
 
     @Override
-    protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals,
-                                                    final Collection<Move> opponentsLegals) {
-
+    protected Collection<Move> calculateKingCastles() {
+        // The board tracks the rights, so a side that has given them up costs a single test
+        final int castlingRights = this.board.getCastlingRights();
+        if ((castlingRights & (BoardUtils.BLACK_KING_SIDE_CASTLE | BoardUtils.BLACK_QUEEN_SIDE_CASTLE)) == 0 || this.isInCheck()) {
+            return Collections.emptyList();
+        }
         final List<Move> kingCastles = new ArrayList<>();
-
+        final long rooks = this.board.getPieceBitboard(Alliance.BLACK, PieceType.ROOK);
         // --- KING SIDE CASTLE ---
-        if (this.playerKing.isFirstMove() && !this.isInCheck()) {
-
-            if (!this.board.getSquare(5).isOccupied() && !this.board.getSquare(6).isOccupied()) {
-
-                final Collection<Move> attacksOn5 = Player.calculateAttacksOnSquare(5, opponentsLegals);
-                final Collection<Move> attacksOn6 = Player.calculateAttacksOnSquare(6, opponentsLegals);
-
-                if (attacksOn5.isEmpty() && attacksOn6.isEmpty()) {
-                    if (this.board.getSquare(7).isOccupied()) {
-                        final Piece pieceAt7 = this.board.getSquare(7).getPiece();
-                        if (pieceAt7.isFirstMove() && pieceAt7.getPieceType().isRook()) {
-                            kingCastles.add(new KingSideCastleMove(
-                                    this.board,
-                                    this.playerKing,
-                                    6,
-                                    (Rook) pieceAt7,
-                                    7,
-                                    5
-                            ));
-                        }
-                    }
-                }
-            }
+        if ((castlingRights & BoardUtils.BLACK_KING_SIDE_CASTLE) != 0 && (rooks & (1L << 7)) != 0 &&
+                // squares 5 and 6 are empty and not attacked
+                (this.board.getOccupiedBitboard() & KING_SIDE_CASTLE_PATH) == 0 &&
+                !this.board.isSquareAttacked(5, Alliance.WHITE) && !this.board.isSquareAttacked(6, Alliance.WHITE)) {
+            kingCastles.add(new KingSideCastleMove(this.board, this.playerKing, 6, (Rook) this.board.getPiece(7), 7, 5));
         }
-
         // --- QUEEN SIDE CASTLE ---
-        if (this.playerKing.isFirstMove() && !this.isInCheck()) {
-
-            if (!this.board.getSquare(1).isOccupied() &&
-                    !this.board.getSquare(2).isOccupied() &&
-                    !this.board.getSquare(3).isOccupied()) {
-
-                final Collection<Move> attacksOn2 = Player.calculateAttacksOnSquare(2, opponentsLegals);
-                final Collection<Move> attacksOn3 = Player.calculateAttacksOnSquare(3, opponentsLegals);
-
-                if (attacksOn2.isEmpty() && attacksOn3.isEmpty()) {
-                    if (this.board.getSquare(0).isOccupied()) {
-                        final Piece pieceAt0 = this.board.getSquare(0).getPiece();
-                        if (pieceAt0.isFirstMove() && pieceAt0.getPieceType().isRook()) {
-                            kingCastles.add(new QueenSideCastleMove(
-                                    this.board,
-                                    this.playerKing,
-                                    2,
-                                    (Rook) pieceAt0,
-                                    0,
-                                    3
-                            ));
-                        }
-                    }
-                }
-            }
+        if ((castlingRights & BoardUtils.BLACK_QUEEN_SIDE_CASTLE) != 0 && (rooks & (1L << 0)) != 0 &&
+                // squares 1, 2 and 3 are empty, the king crosses 2 and 3 unattacked
+                (this.board.getOccupiedBitboard() & QUEEN_SIDE_CASTLE_PATH) == 0 &&
+                !this.board.isSquareAttacked(2, Alliance.WHITE) && !this.board.isSquareAttacked(3, Alliance.WHITE)) {
+            kingCastles.add(new QueenSideCastleMove(this.board, this.playerKing, 2, (Rook) this.board.getPiece(0), 0, 3));
         }
-
         return kingCastles;
     }
 }
@@ -3,44 +3,38 @@ package players;
 import core.Move;
 import entities.Alliance;
 import entities.Board;
+import entities.GameStatus;
 import entities.King;
 import entities.Piece;
 import entities.MoveStatus;
 import entities.MoveTransition;
+import entities.PieceType;
+import utils.BoardUtils;
+import utils.MagicBitboards;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public abstract class Player {
 
     protected final Board board;
     protected final King playerKing;
-    protected final Collection<Move> legalMoves;
-    private final boolean isInCheck;
 
-    // Constructor
-    Player(final Board board,
-           final Collection<Move> legalMoves,
-           final Collection<Move> opponentMoves) {
+    // Computed on first access and memoised for this board
+    private volatile Collection<Move> standardLegalMoves;
+    private volatile Collection<Move> legalMoves;
+    private volatile LegalMoveMasks legalMoveMasks;
+    private volatile Boolean inCheck;
+    private volatile LegalMoveIndex legalMoveIndex;
 
+    // Constructor
+    Player(final Board board) {
         this.board = board;
         this.playerKing = establishKing();
-
-        // 1. Combine standard moves with Castling moves
-        // We use a new list because the incoming 'legalMoves' might be unmodifiable
-        final List<Move> combinedMoves = new ArrayList<>(legalMoves);
-
-        // Calculate castles (Implemented in WhitePlayer/BlackPlayer)
-        combinedMoves.addAll(calculateKingCastles(legalMoves, opponentMoves));
-
-        this.legalMoves = Collections.unmodifiableList(combinedMoves);
-
-        // 2. Calculate Check ONLY (Safe operation)
-        // Checks if any enemy move targets the King's current position
-        this.isInCheck = !Player.calculateAttacksOnSquare(
-                this.playerKing.getPiecePosition(), opponentMoves).isEmpty();
     }
 
     // --- ABSTRACT METHODS ---
@@ -49,8 +43,24 @@ public abstract class Player {
     public abstract Player getOpponent();
 
     // Implemented in subclasses to handle specific King/Queen side rules
-    protected abstract Collection<Move> calculateKingCastles(Collection<Move> playerLegals,
-                                                             Collection<Move> opponentsLegals);
+    protected abstract Collection<Move> calculateKingCastles();
+
+    /**
+     * Moves of every active piece, without castling, ignoring whether they expose the king.
+     * Only needed to explain why a move was rejected; check detection probes the board directly.
+     */
+    protected Collection<Move> getStandardLegalMoves() {
+        Collection<Move> moves = this.standardLegalMoves;
+        if (moves == null) {
+            final List<Move> pieceMoves = new ArrayList<>();
+            for (final Piece piece : getActivePieces()) {
+                piece.addLegalMoves(this.board, pieceMoves);
+            }
+            moves = Collections.unmodifiableList(pieceMoves);
+            this.standardLegalMoves = moves;
+        }
+        return moves;
+    }
 
     // --- STATIC UTILITY ---
     public static Collection<Move> calculateAttacksOnSquare(final int piecePosition,
@@ -67,29 +77,72 @@ public abstract class Player {
     // --- CORE LOGIC ---
 
     private King establishKing() {
-        for (final Piece piece : getActivePieces()) {
-            if (piece.getPieceType().isKing()) {
-                return (King) piece;
-            }
+        final long kingBitboard = this.board.getPieceBitboard(getAlliance(), PieceType.KING);
+        if (kingBitboard == 0) {
+            throw new RuntimeException("Invalid board! No King found!");
         }
-        throw new RuntimeException("Invalid board! No King found!");
+        return (King) this.board.getPiece(Long.numberOfTrailingZeros(kingBitboard));
     }
 
     public boolean isMoveLegal(final Move move) {
-        return this.legalMoves.contains(move);
+        if (move == null || move.getMovedPiece() == null) {
+            return false;
+        }
+        final Move legalMove = getLegalMove(move.getMovedPiece().getPiecePosition(),
+                move.getDestinationCoordinate(), move.getPromotionPieceType());
+        return move.equals(legalMove);
+    }
+
+    /**
+     * Looks up a legal move by its squares, in constant time.
+     *
+     * @param currentCoordinate the square the piece moves from
+     * @param destinationCoordinate the square it moves to
+     * @param promotionType the piece a pawn promotes to; null means a Queen for promotions
+     * @return the legal move, or null if there is none
+     */
+    public Move getLegalMove(final int currentCoordinate, final int destinationCoordinate, final PieceType promotionType) {
+        return getLegalMoveIndex().movesByKey.get(moveKey(currentCoordinate, destinationCoordinate, promotionType));
+    }
+
+    /**
+     * Bitboard of the squares the piece on a square can legally move to, e.g. for highlighting them.
+     *
+     * @param currentCoordinate the square of the piece
+     * @return the destinations, empty if there is no piece of this player there
+     */
+    public long getLegalDestinations(final int currentCoordinate) {
+        return getLegalMoveIndex().destinations[currentCoordinate];
     }
 
     public boolean isInCheck() {
-        return this.isInCheck;
+        Boolean check = this.inCheck;
+        if (check == null) {
+            // Probes outward from the King's square instead of scanning the opponent's moves
+            check = this.board.isSquareAttacked(this.playerKing.getPiecePosition(), getAlliance().getOpponent());
+            this.inCheck = check;
+        }
+        return check;
     }
 
     // Calculated On-Demand to prevent Infinite Recursion in Constructor
     public boolean isInCheckMate() {
-        return this.isInCheck && !hasEscapeMoves();
+        return getGameStatus() == GameStatus.CHECKMATE;
     }
 
     public boolean isInStaleMate() {
-        return !this.isInCheck && !hasEscapeMoves();
+        return getGameStatus() == GameStatus.STALEMATE;
+    }
+
+    /**
+     * The player to move reads the status memoised on the board; the other player can only be
+     * asked hypothetically and derives it from its own memoised check and legal moves.
+     */
+    private GameStatus getGameStatus() {
+        if (this.board.getCurrentPlayer() == this) {
+            return this.board.getGameStatus();
+        }
+        return GameStatus.of(isInCheck(), hasEscapeMoves());
     }
 
     // Placeholder for castling status (can be expanded later with move history)
@@ -97,41 +150,22 @@ public abstract class Player {
         return false;
     }
 
+    // Legal moves are strictly legal, so any of them is an escape
     protected boolean hasEscapeMoves() {
-        for (final Move move : this.legalMoves) {
-            // Try to make the move on a virtual board
-            final MoveTransition transition = makeMove(move);
-            // If the move was successful (didn't leave king in check), we can escape
-            if (transition.getMoveStatus().isDone()) {
-                return true;
-            }
-        }
-        return false;
+        return !getLegalMoves().isEmpty();
     }
 
     public MoveTransition makeMove(final Move move) {
-        // 1. Check if move is structurally legal
+        // 1. Legal moves already respect pins and checks, so no successor board is needed to decide
         if (!isMoveLegal(move)) {
-            return new MoveTransition(this.board, move, MoveStatus.ILLEGAL_MOVE);
+            // A move the pieces can make that still fails only because of the king
+            final MoveStatus status = getStandardLegalMoves().contains(move) ?
+                    MoveStatus.LEAVES_PLAYER_IN_CHECK : MoveStatus.ILLEGAL_MOVE;
+            return new MoveTransition(this.board, move, status);
         }
 
         // 2. Execute move on a new board
-        final Board transitionBoard = move.execute();
-
-        // 3. Check if the move left the player's OWN king in check
-        // On the new board, the current player is the OPPONENT.
-        // So we check attacks on the OPPONENT'S opponent (Original Mover).
-        final Collection<Move> kingAttacks = Player.calculateAttacksOnSquare(
-                transitionBoard.getCurrentPlayer().getOpponent().getPlayerKing().getPiecePosition(),
-                transitionBoard.getCurrentPlayer().getLegalMoves());
-
-        // 4. If King is attacked, the move is invalid
-        if (!kingAttacks.isEmpty()) {
-            return new MoveTransition(this.board, move, MoveStatus.LEAVES_PLAYER_IN_CHECK);
-        }
-
-        // 5. Move is valid
-        return new MoveTransition(transitionBoard, move, MoveStatus.DONE);
+        return new MoveTransition(move.execute(), move, MoveStatus.DONE);
     }
 
     // --- GETTERS ---
@@ -139,7 +173,244 @@ public abstract class Player {
         return this.playerKing;
     }
 
+    /**
+     * Strictly legal moves: no move in this list leaves the player's own king in check.
+     */
     public Collection<Move> getLegalMoves() {
-        return this.legalMoves;
+        Collection<Move> moves = this.legalMoves;
+        if (moves == null) {
+            moves = Collections.unmodifiableList(calculateLegalMoves());
+            this.legalMoves = moves;
+        }
+        return moves;
+    }
+
+    /**
+     * Moves generated lazily in stages: the hash move, captures, quiet promotions, killer moves and
+     * finally the remaining quiet moves. A stage is only generated once the previous one is
+     * exhausted, so a search that cuts off early never pays for the quiet moves.
+     *
+     * @param hashMove a move to try first, typically from a transposition table; may be null
+     * @param killerMoves quiet moves that caused cutoffs in sibling positions; entries may be null
+     * @return an iterator over every legal move, each yielded exactly once
+     */
+    public StagedMoveGenerator getStagedMoves(final Move hashMove, final Move... killerMoves) {
+        return new StagedMoveGenerator(this, hashMove, killerMoves);
+    }
+
+    /**
+     * Strictly legal captures only (including capture promotions and en passant), without
+     * generating any quiet move. This is the move list of a quiescence search.
+     */
+    public Collection<Move> getCaptureMoves() {
+        final List<Move> captures = new ArrayList<>();
+        addCaptureMoves(captures);
+        return captures;
+    }
+
+    /**
+     * Checkers, pinned pieces and the squares the king can step to, computed once per position and
+     * shared by full and staged move generation.
+     */
+    private LegalMoveMasks getLegalMoveMasks() {
+        LegalMoveMasks masks = this.legalMoveMasks;
+        if (masks == null) {
+            masks = new LegalMoveMasks();
+            this.legalMoveMasks = masks;
+        }
+        return masks;
+    }
+
+    /**
+     * Generates only legal moves. Checkers and pinned pieces are found up front from the bitboards,
+     * then every piece generates into a destination mask:
+     * <ul>
+     *     <li>the king may only step onto squares the opponent does not attack;</li>
+     *     <li>in double check, only the king may move;</li>
+     *     <li>in single check, other pieces must capture the checker or block the line to it;</li>
+     *     <li>a pinned piece must stay on the line between its king and the pinner.</li>
+     * </ul>
+     */
+    private List<Move> calculateLegalMoves() {
+        final LegalMoveMasks masks = getLegalMoveMasks();
+        final List<Move> moves = new ArrayList<>();
+        for (final Piece piece : getActivePieces()) {
+            final long mask = masks.getDestinationMask(piece);
+            if (mask != 0) {
+                piece.addLegalMoves(this.board, mask, moves);
+            }
+        }
+        if (masks.checkers == 0) {
+            moves.addAll(calculateKingCastles());
+        }
+        return moves;
+    }
+
+    private LegalMoveIndex getLegalMoveIndex() {
+        LegalMoveIndex index = this.legalMoveIndex;
+        if (index == null) {
+            index = new LegalMoveIndex(getLegalMoves());
+            this.legalMoveIndex = index;
+        }
+        return index;
+    }
+
+    private static int moveKey(final int currentCoordinate, final int destinationCoordinate, final PieceType promotionType) {
+        return currentCoordinate | (destinationCoordinate << 6) | ((promotionType == null ? 0 : promotionType.ordinal() + 1) << 12);
+    }
+
+    // --- STAGES ---
+
+    void addCaptureMoves(final List<Move> moves) {
+        final LegalMoveMasks masks = getLegalMoveMasks();
+        for (final Piece piece : getActivePieces()) {
+            final long mask = masks.getDestinationMask(piece);
+            if (mask != 0) {
+                piece.addCaptureMoves(this.board, mask, moves);
+            }
+        }
+    }
+
+    /**
+     * Pawn pushes onto the last rank, one move per promotion piece.
+     */
+    void addPromotionMoves(final List<Move> moves) {
+        final LegalMoveMasks masks = getLegalMoveMasks();
+        final long promotionRank = getPromotionRank();
+        for (final Piece piece : getActivePieces()) {
+            if (piece.getPieceType() == PieceType.PAWN) {
+                final long mask = masks.getDestinationMask(piece) & promotionRank;
+                if (mask != 0) {
+                    piece.addQuietMoves(this.board, mask, moves);
+                }
+            }
+        }
+    }
+
+    /**
+     * Every non-capturing move that does not promote, castling included.
+     */
+    void addQuietMoves(final List<Move> moves) {
+        final LegalMoveMasks masks = getLegalMoveMasks();
+        final long notPromotionRank = ~getPromotionRank();
+        for (final Piece piece : getActivePieces()) {
+            long mask = masks.getDestinationMask(piece);
+            if (piece.getPieceType() == PieceType.PAWN) {
+                mask &= notPromotionRank;
+            }
+            if (mask != 0) {
+                piece.addQuietMoves(this.board, mask, moves);
+            }
+        }
+        if (masks.checkers == 0) {
+            moves.addAll(calculateKingCastles());
+        }
+    }
+
+    /**
+     * Finds a move from another position (a hash or killer move) among this position's legal moves
+     * without generating the full list: only the moving piece's moves onto the destination are
+     * generated and compared.
+     *
+     * @return the equal legal move of this position, or null if it is not legal here
+     */
+    Move findLegalMove(final Move move) {
+        final Piece movedPiece = move == null ? null : move.getMovedPiece();
+        // Pieces are interned, so a move for a piece that is not on this board never matches
+        if (movedPiece == null || movedPiece.getPieceAlliance() != getAlliance() ||
+                this.board.getPiece(movedPiece.getPiecePosition()) != movedPiece) {
+            return null;
+        }
+        final LegalMoveMasks masks = getLegalMoveMasks();
+        final List<Move> pieceMoves = new ArrayList<>();
+        if (move.isCastlingMove()) {
+            if (masks.checkers == 0) {
+                pieceMoves.addAll(calculateKingCastles());
+            }
+        } else {
+            // En passant is checked exactly by the pawn, so it is generated whatever the mask
+            final long mask = masks.getDestinationMask(movedPiece) & (1L << move.getDestinationCoordinate());
+            if (mask != 0 || Long.bitCount(masks.checkers) < 2) {
+                movedPiece.addLegalMoves(this.board, mask, pieceMoves);
+            }
+        }
+        for (final Move pieceMove : pieceMoves) {
+            if (pieceMove.equals(move)) {
+                return pieceMove;
+            }
+        }
+        return null;
+    }
+
+    private long getPromotionRank() {
+        return getAlliance().isWhite() ? BoardUtils.EIGHTH_RANK_BITBOARD : BoardUtils.FIRST_RANK_BITBOARD;
+    }
+
+    /**
+     * Per-position legality masks: see {@link #calculateLegalMoves()}.
+     */
+    private final class LegalMoveMasks {
+
+        private final long kingMask;
+        private final long checkers;
+        private final long checkMask;
+        private final long pinned;
+        private final long[] pinRays = new long[BoardUtils.NUM_SQUARES];
+
+        private LegalMoveMasks() {
+            final Alliance opponent = getAlliance().getOpponent();
+            final int kingSquare = playerKing.getPiecePosition();
+            final long occupied = board.getOccupiedBitboard();
+
+            // The king must not hide behind itself from a slider, so it is lifted off the board for this map
+            this.kingMask = ~board.calculateAttackedSquares(opponent, occupied & ~(1L << kingSquare));
+            this.checkers = board.getAttackersOf(kingSquare, opponent, occupied);
+            this.checkMask = this.checkers == 0 ? ~0L :
+                    this.checkers | BoardUtils.getSquaresBetween(kingSquare, Long.numberOfTrailingZeros(this.checkers));
+
+            final long opponentQueens = board.getPieceBitboard(opponent, PieceType.QUEEN);
+            this.pinned = MagicBitboards.calculatePinnedPieces(kingSquare,
+                    board.getAllianceBitboard(getAlliance()), board.getAllianceBitboard(opponent),
+                    board.getPieceBitboard(opponent, PieceType.ROOK) | opponentQueens,
+                    board.getPieceBitboard(opponent, PieceType.BISHOP) | opponentQueens, this.pinRays);
+        }
+
+        /**
+         * The squares a piece may legally move to; empty for everything but the king in double check.
+         */
+        private long getDestinationMask(final Piece piece) {
+            if (piece == playerKing) {
+                return this.kingMask;
+            }
+            if (Long.bitCount(this.checkers) > 1) {
+                return 0L;
+            }
+            final int position = piece.getPiecePosition();
+            return (this.pinned & (1L << position)) != 0 ? this.checkMask & this.pinRays[position] : this.checkMask;
+        }
+    }
+
+    /**
+     * The legal moves keyed by (from, to, promotion), plus the destinations of each origin square.
+     * Built once per position on the first lookup.
+     */
+    private static final class LegalMoveIndex {
+
+        private final Map<Integer, Move> movesByKey;
+        private final long[] destinations = new long[BoardUtils.NUM_SQUARES];
+
+        private LegalMoveIndex(final Collection<Move> legalMoves) {
+            this.movesByKey = new HashMap<>(legalMoves.size() * 2);
+            for (final Move move : legalMoves) {
+                final int currentCoordinate = move.getMovedPiece().getPiecePosition();
+                final PieceType promotionType = move.getPromotionPieceType();
+                this.movesByKey.put(moveKey(currentCoordinate, move.getDestinationCoordinate(), promotionType), move);
+                // A promotion asked for without a piece is a Queen, as in the GUI
+                if (promotionType == PieceType.QUEEN) {
+                    this.movesByKey.put(moveKey(currentCoordinate, move.getDestinationCoordinate(), null), move);
+                }
+                this.destinations[currentCoordinate] |= 1L << move.getDestinationCoordinate();
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,114 @@
+package players;
+
+import core.Move;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over a player's legal moves in the order a search wants to try them, generating each
+ * group only when the previous one is used up:
+ * <ol>
+ *     <li>the hash move, if it is legal here;</li>
+ *     <li>captures, including capture promotions and en passant;</li>
+ *     <li>promotions by push;</li>
+ *     <li>killer moves that are legal quiet moves here;</li>
+ *     <li>every other quiet move, castling included.</li>
+ * </ol>
+ * Every legal move is yielded exactly once. Obtained from {@link Player#getStagedMoves(Move, Move...)}.
+ */
+public final class StagedMoveGenerator implements Iterator<Move> {
+
+    private enum Stage {
+        START, HASH_MOVE, CAPTURES, PROMOTIONS, KILLER_MOVES, QUIET_MOVES, DONE
+    }
+
+    private final Player player;
+    private final Move[] killerMoves;
+    private final List<Move> stageMoves = new ArrayList<>();
+    private final List<Move> specialMoves = new ArrayList<>(3);
+    private final Move hashMove;
+    private Stage stage = Stage.START;
+    private int index;
+    private Move next;
+
+    StagedMoveGenerator(final Player player, final Move hashMove, final Move[] killerMoves) {
+        this.player = player;
+        this.hashMove = hashMove;
+        this.killerMoves = killerMoves == null ? new Move[0] : killerMoves;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (this.next == null && this.stage != Stage.DONE) {
+            if (this.index < this.stageMoves.size()) {
+                final Move candidate = this.stageMoves.get(this.index++);
+                // The hash and killer moves are yielded in their own stages only
+                if (this.stage == Stage.HASH_MOVE || this.stage == Stage.KILLER_MOVES ||
+                        !this.specialMoves.contains(candidate)) {
+                    this.next = candidate;
+                }
+            } else {
+                nextStage();
+            }
+        }
+        return this.next != null;
+    }
+
+    @Override
+    public Move next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final Move move = this.next;
+        this.next = null;
+        return move;
+    }
+
+    /**
+     * Name of the stage the last yielded move came from, for logs and tests.
+     */
+    public String getStageName() {
+        return this.stage.name();
+    }
+
+    private void nextStage() {
+        this.stageMoves.clear();
+        this.index = 0;
+        this.stage = Stage.values()[this.stage.ordinal() + 1];
+        switch (this.stage) {
+            case HASH_MOVE:
+                final Move legalHashMove = this.player.findLegalMove(this.hashMove);
+                if (legalHashMove != null) {
+                    this.specialMoves.add(legalHashMove);
+                    this.stageMoves.add(legalHashMove);
+                }
+                break;
+            case CAPTURES:
+                this.player.addCaptureMoves(this.stageMoves);
+                break;
+            case PROMOTIONS:
+                this.player.addPromotionMoves(this.stageMoves);
+                break;
+            case KILLER_MOVES:
+                for (final Move killerMove : this.killerMoves) {
+                    // Killers are quiet moves; captures and promotions came earlier
+                    if (killerMove != null && !killerMove.isAttack() && killerMove.getPromotionPieceType() == null) {
+                        final Move legalMove = this.player.findLegalMove(killerMove);
+                        if (legalMove != null && !this.specialMoves.contains(legalMove)) {
+                            this.specialMoves.add(legalMove);
+                            this.stageMoves.add(legalMove);
+                        }
+                    }
+                }
+                break;
+            case QUIET_MOVES:
+                this.player.addQuietMoves(this.stageMoves);
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -4,21 +4,24 @@ import core.Move;
 import entities.Alliance;
 import entities.Board;
 import entities.Piece;
+import entities.PieceType;
 import entities.Rook;
+import utils.BoardUtils;
 import core.Move.KingSideCastleMove;
 import core.Move.QueenSideCastleMove;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 public class WhitePlayer extends Player {
 
-    public WhitePlayer(final Board board,
-                       final Collection<Move> whiteStandardLegalMoves,
-                       final Collection<Move> blackStandardLegalMoves) {
+    // Squares between the king and the rook that must be empty to castle
+    private static final long KING_SIDE_CASTLE_PATH = (1L << 61) | (1L << 62);
+    private static final long QUEEN_SIDE_CASTLE_PATH = (1L << 57) | (1L << 58) | (1L << 59);
 
-        // Pass the specific lists to the parent constructor
-        super(board, whiteStandardLegalMoves, blackStandardLegalMoves);
+    public WhitePlayer(final Board board) {
+        super(board);
     }
 
     @Override
@@ -36,54 +39,31 @@ public class WhitePlayer extends Player {
         return this.board.getBlackPlayer();
     }
 
-    protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals,
-                                                    final Collection<Move> opponentLegals) {
+    protected Collection<Move> calculateKingCastles() {
+        // The board tracks the rights, so a side that has given them up costs a single test
+        final int castlingRights = this.board.getCastlingRights();
+        if ((castlingRights & (BoardUtils.WHITE_KING_SIDE_CASTLE | BoardUtils.WHITE_QUEEN_SIDE_CASTLE)) == 0 || this.isInCheck()) {
+            return Collections.emptyList();
+        }
         final List<Move> kingCastles = new ArrayList<>();
+        final long rooks = this.board.getPieceBitboard(Alliance.WHITE, PieceType.ROOK);
         // KING SIDE CASTLING
         // WHITE KING START AT 60, TARGET TO MOVE TO 62
-        if (this.playerKing.isFirstMove() && !this.isInCheck()) {
-            // check if squares 61 and 62 are empty
-            if (!this.board.getSquare(61).isOccupied()
-            && !this.board.getSquare(62).isOccupied()) {
-                // check squares 61 and 62 are not attacked
-                final Collection<Move> attackOn61 = Player.calculateAttacksOnSquare(61, opponentLegals);
-                final Collection<Move> attackOn62 = Player.calculateAttacksOnSquare(62, opponentLegals);
-
-                if (attackOn61.isEmpty() && attackOn62.isEmpty()) {
-                    // need to check for the Rook at 63
-                    if (this.board.getSquare(63).isOccupied()) {
-                        final Piece pieceAt63 = this.board.getSquare(63).getPiece();
-                            if (pieceAt63.isFirstMove() && pieceAt63.getPieceType().isRook()) {
-                                kingCastles.add(new KingSideCastleMove(this.board, this.playerKing, 62, (Rook)pieceAt63, 63, 61));
-                        }
-                    }
-                }
-            }
+        if ((castlingRights & BoardUtils.WHITE_KING_SIDE_CASTLE) != 0 && (rooks & (1L << 63)) != 0 &&
+                // squares 61 and 62 are empty and not attacked
+                (this.board.getOccupiedBitboard() & KING_SIDE_CASTLE_PATH) == 0 &&
+                !this.board.isSquareAttacked(61, Alliance.BLACK) && !this.board.isSquareAttacked(62, Alliance.BLACK)) {
+            kingCastles.add(new KingSideCastleMove(this.board, this.playerKing, 62, (Rook) this.board.getPiece(63), 63, 61));
         }
         // QUEEN SIDE CASTLING
         // WHITE KING START AT 60, TARGET TO MOVE TO 58
-        if (this.playerKing.isFirstMove() && !this.isInCheck()) {
-            // check if squares 57, 58, 59 are empty
-            if (!this.board.getSquare(57).isOccupied()
-            && !this.board.getSquare(58).isOccupied()
-            && !this.board.getSquare(59).isOccupied()) {
-
-                final Collection<Move> attackOn58 = Player.calculateAttacksOnSquare(58, opponentLegals);
-                final Collection<Move> attackOn59 = Player.calculateAttacksOnSquare(59, opponentLegals);
-
-                if (attackOn59.isEmpty() && attackOn58.isEmpty()) {
-                    // we need to check for the Rook at 56
-                    if(this.board.getSquare(56).isOccupied()) {
-                        // TODO: Uncomment once Rook class is created
-                            final Piece pieceAt56 = this.board.getSquare(56).getPiece();
-                                if (pieceAt56.isFirstMove() && pieceAt56.getPieceType().isRook()) {
-                                    kingCastles.add(new QueenSideCastleMove(this.board, this.playerKing, 58, (Rook)pieceAt56, 56, 59));
-                        }
-                    }
-                }
-            }
+        if ((castlingRights & BoardUtils.WHITE_QUEEN_SIDE_CASTLE) != 0 && (rooks & (1L << 56)) != 0 &&
+                // squares 57, 58 and 59 are empty, the king crosses 58 and 59 unattacked
+                (this.board.getOccupiedBitboard() & QUEEN_SIDE_CASTLE_PATH) == 0 &&
+                !this.board.isSquareAttacked(58, Alliance.BLACK) && !this.board.isSquareAttacked(59, Alliance.BLACK)) {
+            kingCastles.add(new QueenSideCastleMove(this.board, this.playerKing, 58, (Rook) this.board.getPiece(56), 56, 59));
         }
         return kingCastles;
     }
 
-}
\ No newline at end of file
+}
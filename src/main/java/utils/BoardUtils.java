@@ -1,5 +1,7 @@
 package utils;
 
+import java.util.Arrays;
+
 public class BoardUtils {
 
     public static final boolean[] FIRST_COLUMN = initColumn(0);
@@ -19,6 +21,51 @@ public class BoardUtils {
     public static final int NUM_SQUARES = 64;
     public static final int NUM_SQUARES_PER_ROW = 8;
 
+    // --- BITBOARDS ---
+    // Bit i of a bitboard stands for square i, so bit 0 is a8 and bit 63 is h1.
+    public static final long FIRST_COLUMN_BITBOARD = toBitboard(FIRST_COLUMN);
+    public static final long SECOND_COLUMN_BITBOARD = toBitboard(SECOND_COLUMN);
+    public static final long SEVENTH_COLUMN_BITBOARD = toBitboard(SEVENTH_COLUMN);
+    public static final long EIGHTH_COLUMN_BITBOARD = toBitboard(EIGHTH_COLUMN);
+    public static final long EIGHTH_RANK_BITBOARD = toBitboard(EIGHTH_RANK);
+    public static final long FIRST_RANK_BITBOARD = toBitboard(FIRST_RANK);
+
+    // --- LEAPER TABLES ---
+    // Indexed by square; the pawn tables are indexed by Alliance.ordinal() first (0 = white, 1 = black).
+    private static final int[] KNIGHT_OFFSETS = {-17, -15, -10, -6, 6, 10, 15, 17};
+    private static final int[] KING_OFFSETS = {-9, -8, -7, -1, 1, 7, 8, 9};
+
+    public static final long[] KNIGHT_ATTACKS = initLeaperTable(KNIGHT_OFFSETS);
+    public static final long[] KING_ATTACKS = initLeaperTable(KING_OFFSETS);
+    /** Diagonal squares a pawn attacks (white moves up the board, towards index 0). */
+    public static final long[][] PAWN_ATTACKS = {
+            initLeaperTable(new int[]{-7, -9}),
+            initLeaperTable(new int[]{7, 9})
+    };
+    /** Square one step in front of a pawn. */
+    public static final long[][] PAWN_PUSHES = {
+            initLeaperTable(new int[]{-8}),
+            initLeaperTable(new int[]{8})
+    };
+    /** Square two steps in front of a pawn still on its starting rank, empty elsewhere. */
+    public static final long[][] PAWN_DOUBLE_PUSHES = {
+            initDoublePushTable(-16, SECOND_RANK),
+            initDoublePushTable(16, SEVENTH_RANK)
+    };
+
+    // --- CASTLING RIGHTS ---
+    public static final int WHITE_KING_SIDE_CASTLE = 1;
+    public static final int WHITE_QUEEN_SIDE_CASTLE = 2;
+    public static final int BLACK_KING_SIDE_CASTLE = 4;
+    public static final int BLACK_QUEEN_SIDE_CASTLE = 8;
+    public static final int ALL_CASTLING_RIGHTS = 15;
+
+    // Rights that survive a move touching each square (king and rook home squares clear rights)
+    private static final int[] CASTLING_RIGHTS_MASK = initCastlingRightsMask();
+
+    // Squares strictly between two squares on a shared rank, file or diagonal, indexed [from][to]
+    private static final long[][] SQUARES_BETWEEN = initSquaresBetween();
+
     private BoardUtils() {
         throw new RuntimeException("Cannot instantiate BoardUtils");
     }
@@ -43,7 +90,133 @@ public class BoardUtils {
         return column;
     }
 
+    private static long toBitboard(final boolean[] squares) {
+        long bitboard = 0L;
+        for (int i = 0; i < NUM_SQUARES; i++) {
+            if (squares[i]) {
+                bitboard |= 1L << i;
+            }
+        }
+        return bitboard;
+    }
+
+    private static long[] initLeaperTable(final int[] offsets) {
+        final long[] table = new long[NUM_SQUARES];
+        for (int square = 0; square < NUM_SQUARES; square++) {
+            for (final int offset : offsets) {
+                table[square] |= shift(1L << square, offset);
+            }
+        }
+        return table;
+    }
+
+    private static long[] initDoublePushTable(final int offset, final boolean[] startRank) {
+        final long[] table = new long[NUM_SQUARES];
+        for (int square = 0; square < NUM_SQUARES; square++) {
+            if (startRank[square]) {
+                table[square] = 1L << (square + offset);
+            }
+        }
+        return table;
+    }
+
+    private static int[] initCastlingRightsMask() {
+        final int[] mask = new int[NUM_SQUARES];
+        Arrays.fill(mask, ALL_CASTLING_RIGHTS);
+        mask[60] &= ~(WHITE_KING_SIDE_CASTLE | WHITE_QUEEN_SIDE_CASTLE);
+        mask[63] &= ~WHITE_KING_SIDE_CASTLE;
+        mask[56] &= ~WHITE_QUEEN_SIDE_CASTLE;
+        mask[4] &= ~(BLACK_KING_SIDE_CASTLE | BLACK_QUEEN_SIDE_CASTLE);
+        mask[7] &= ~BLACK_KING_SIDE_CASTLE;
+        mask[0] &= ~BLACK_QUEEN_SIDE_CASTLE;
+        return mask;
+    }
+
+    /**
+     * Castling rights left after a move from one square to another: moving the king or a rook off its
+     * home square, or capturing a rook on it, gives up the matching rights for good.
+     *
+     * @param castlingRights the rights before the move, a combination of the *_CASTLE bits
+     * @param from the origin square of the move
+     * @param to the destination square of the move
+     * @return the rights after the move
+     */
+    public static int updateCastlingRights(final int castlingRights, final int from, final int to) {
+        return castlingRights & CASTLING_RIGHTS_MASK[from] & CASTLING_RIGHTS_MASK[to];
+    }
+
+    private static long[][] initSquaresBetween() {
+        final long[][] between = new long[NUM_SQUARES][NUM_SQUARES];
+        for (int square = 0; square < NUM_SQUARES; square++) {
+            for (final int direction : KING_OFFSETS) {
+                long path = 0L;
+                long ray = shift(1L << square, direction);
+                while (ray != 0) {
+                    between[square][Long.numberOfTrailingZeros(ray)] = path;
+                    path |= ray;
+                    ray = shift(ray, direction);
+                }
+            }
+        }
+        return between;
+    }
+
+    /**
+     * Squares strictly between two squares that share a rank, file or diagonal.
+     * Used to find the squares that block a check or keep a pinned piece on its pin line.
+     *
+     * @param from one end of the line
+     * @param to the other end of the line
+     * @return the squares in between, or an empty bitboard if the squares are not aligned
+     */
+    public static long getSquaresBetween(final int from, final int to) {
+        return SQUARES_BETWEEN[from][to];
+    }
+
     public static boolean isValidSquareCoordinate(final int squareCoordinate) {
         return squareCoordinate >= 0 && squareCoordinate < NUM_SQUARES;
     }
+
+    /**
+     * Moves every square of a bitboard by the given coordinate offset (e.g. -8 is one rank up, 17 is a knight jump).
+     * Squares that would leave the board, or wrap around from one edge column to the other, are dropped.
+     *
+     * @param bitboard the set of squares to move
+     * @param offset the coordinate offset, between -18 and 18
+     * @return the moved set of squares
+     */
+    public static long shift(final long bitboard, final int offset) {
+        final long shifted = offset > 0 ? bitboard << offset : bitboard >>> -offset;
+        // Column change caused by the offset: -2..2
+        final int columnDelta = Math.floorMod(offset + 4, NUM_SQUARES_PER_ROW) - 4;
+        switch (columnDelta) {
+            case 1: return shifted & ~FIRST_COLUMN_BITBOARD;
+            case 2: return shifted & ~(FIRST_COLUMN_BITBOARD | SECOND_COLUMN_BITBOARD);
+            case -1: return shifted & ~EIGHTH_COLUMN_BITBOARD;
+            case -2: return shifted & ~(SEVENTH_COLUMN_BITBOARD | EIGHTH_COLUMN_BITBOARD);
+            default: return shifted;
+        }
+    }
+
+    /**
+     * Walks each direction from a square until the board edge or the first occupied square (which is included).
+     *
+     * @param squareCoordinate the square the slider stands on
+     * @param occupied every occupied square on the board
+     * @param directions the coordinate offsets of the rays
+     * @return the set of attacked squares
+     */
+    public static long slidingAttacks(final int squareCoordinate, final long occupied, final int[] directions) {
+        long attacks = 0L;
+        for (final int direction : directions) {
+            long ray = 1L << squareCoordinate;
+            while ((ray = shift(ray, direction)) != 0) {
+                attacks |= ray;
+                if ((ray & occupied) != 0) {
+                    break; // blocked
+                }
+            }
+        }
+        return attacks;
+    }
 }
@@ -0,0 +1,193 @@
+package utils;
+
+import entities.Alliance;
+import entities.Bishop;
+import entities.Board;
+import entities.King;
+import entities.Knight;
+import entities.Pawn;
+import entities.Piece;
+import entities.Queen;
+import entities.Rook;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation, e.g.
+ * {@code rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1}.
+ *
+ * <p>The board does not track the half-move clock or the move number, so written FENs always end
+ * in "0 1" and those two fields are ignored when reading.</p>
+ */
+public final class FenUtilities {
+
+    private static final String CASTLING_LETTERS = "KQkq";
+    private static final int[] CASTLING_BITS = {
+            BoardUtils.WHITE_KING_SIDE_CASTLE, BoardUtils.WHITE_QUEEN_SIDE_CASTLE,
+            BoardUtils.BLACK_KING_SIDE_CASTLE, BoardUtils.BLACK_QUEEN_SIDE_CASTLE
+    };
+
+    private FenUtilities() {
+        throw new RuntimeException("Cannot instantiate FenUtilities");
+    }
+
+    /**
+     * Builds a board from a FEN string.
+     *
+     * @param fen the position; at least the placement and side-to-move fields
+     * @return the board, with the castling rights and en passant pawn the FEN describes
+     * @throws IllegalArgumentException if the FEN is malformed
+     */
+    public static Board createBoardFromFen(final String fen) {
+        final String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 2) {
+            throw new IllegalArgumentException("FEN needs at least piece placement and side to move: " + fen);
+        }
+        final int castlingRights = fields.length > 2 ? parseCastlingRights(fields[2]) : 0;
+        final Board.Builder builder = new Board.Builder();
+        final Piece[] pieces = new Piece[BoardUtils.NUM_SQUARES];
+
+        int square = 0;
+        for (final char c : fields[0].toCharArray()) {
+            if (c == '/') {
+                continue;
+            }
+            if (Character.isDigit(c)) {
+                square += c - '0';
+                continue;
+            }
+            if (square >= BoardUtils.NUM_SQUARES) {
+                throw new IllegalArgumentException("Too many squares in FEN: " + fen);
+            }
+            pieces[square] = createPiece(c, square, castlingRights);
+            builder.setPiece(pieces[square]);
+            square++;
+        }
+        if (square != BoardUtils.NUM_SQUARES) {
+            throw new IllegalArgumentException("FEN does not describe 64 squares: " + fen);
+        }
+
+        final Alliance sideToMove;
+        switch (fields[1]) {
+            case "w": sideToMove = Alliance.WHITE; break;
+            case "b": sideToMove = Alliance.BLACK; break;
+            default: throw new IllegalArgumentException("Unknown side to move in FEN: " + fen);
+        }
+        builder.setNextMoveMaker(sideToMove);
+        builder.setCastlingRights(castlingRights);
+
+        // The board keeps the pawn that may be taken, one rank behind the target square
+        if (fields.length > 3 && !fields[3].equals("-")) {
+            final int pawnSquare = parseSquare(fields[3]) + sideToMove.getOppositeDirection() * 8;
+            if (!(pieces[pawnSquare] instanceof Pawn)) {
+                throw new IllegalArgumentException("No pawn to take en passant in FEN: " + fen);
+            }
+            builder.setEnPassantPawn((Pawn) pieces[pawnSquare]);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Writes a board as a FEN string.
+     *
+     * @param board the board to describe
+     * @return the FEN, with "0 1" as half-move clock and move number
+     */
+    public static String createFenFromBoard(final Board board) {
+        final StringBuilder fen = new StringBuilder();
+        for (int rank = 0; rank < BoardUtils.NUM_SQUARES_PER_ROW; rank++) {
+            int emptySquares = 0;
+            for (int file = 0; file < BoardUtils.NUM_SQUARES_PER_ROW; file++) {
+                final Piece piece = board.getPiece(rank * BoardUtils.NUM_SQUARES_PER_ROW + file);
+                if (piece == null) {
+                    emptySquares++;
+                    continue;
+                }
+                if (emptySquares > 0) {
+                    fen.append(emptySquares);
+                    emptySquares = 0;
+                }
+                final String letter = piece.getPieceType().toString();
+                fen.append(piece.getPieceAlliance().isWhite() ? letter : letter.toLowerCase());
+            }
+            if (emptySquares > 0) {
+                fen.append(emptySquares);
+            }
+            if (rank < BoardUtils.NUM_SQUARES_PER_ROW - 1) {
+                fen.append('/');
+            }
+        }
+
+        fen.append(board.getCurrentPlayer().getAlliance().isWhite() ? " w " : " b ");
+
+        final int castlingRights = board.getCastlingRights();
+        if (castlingRights == 0) {
+            fen.append('-');
+        }
+        for (int i = 0; i < CASTLING_BITS.length; i++) {
+            if ((castlingRights & CASTLING_BITS[i]) != 0) {
+                fen.append(CASTLING_LETTERS.charAt(i));
+            }
+        }
+
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        fen.append(' ').append(enPassantPawn == null ? "-" : squareName(enPassantPawn.getPiecePosition() +
+                enPassantPawn.getPieceAlliance().getOppositeDirection() * 8));
+        return fen.append(" 0 1").toString();
+    }
+
+    private static int parseCastlingRights(final String field) {
+        int castlingRights = 0;
+        if (field.equals("-")) {
+            return castlingRights;
+        }
+        for (final char c : field.toCharArray()) {
+            final int index = CASTLING_LETTERS.indexOf(c);
+            if (index < 0) {
+                throw new IllegalArgumentException("Unknown castling right in FEN: " + field);
+            }
+            castlingRights |= CASTLING_BITS[index];
+        }
+        return castlingRights;
+    }
+
+    /**
+     * Creates the piece for a FEN letter. Kings and rooks that may still castle are marked unmoved,
+     * so the pieces agree with the castling rights.
+     */
+    private static Piece createPiece(final char letter, final int square, final int castlingRights) {
+        final Alliance alliance = Character.isUpperCase(letter) ? Alliance.WHITE : Alliance.BLACK;
+        switch (Character.toLowerCase(letter)) {
+            case 'p': return Pawn.create(square, alliance);
+            case 'n': return Knight.create(square, alliance);
+            case 'b': return Bishop.create(square, alliance);
+            case 'q': return Queen.create(square, alliance);
+            case 'r': return Rook.create(square, alliance, isCastlingPiece(square, castlingRights));
+            case 'k': return King.create(square, alliance, isCastlingPiece(square, castlingRights));
+            default: throw new IllegalArgumentException("Unknown piece in FEN: " + letter);
+        }
+    }
+
+    private static boolean isCastlingPiece(final int square, final int castlingRights) {
+        switch (square) {
+            case 60: return (castlingRights & (BoardUtils.WHITE_KING_SIDE_CASTLE | BoardUtils.WHITE_QUEEN_SIDE_CASTLE)) != 0;
+            case 63: return (castlingRights & BoardUtils.WHITE_KING_SIDE_CASTLE) != 0;
+            case 56: return (castlingRights & BoardUtils.WHITE_QUEEN_SIDE_CASTLE) != 0;
+            case 4: return (castlingRights & (BoardUtils.BLACK_KING_SIDE_CASTLE | BoardUtils.BLACK_QUEEN_SIDE_CASTLE)) != 0;
+            case 7: return (castlingRights & BoardUtils.BLACK_KING_SIDE_CASTLE) != 0;
+            case 0: return (castlingRights & BoardUtils.BLACK_QUEEN_SIDE_CASTLE) != 0;
+            default: return false;
+        }
+    }
+
+    private static int parseSquare(final String name) {
+        if (name.length() != 2 || name.charAt(0) < 'a' || name.charAt(0) > 'h' ||
+                name.charAt(1) < '1' || name.charAt(1) > '8') {
+            throw new IllegalArgumentException("Not a square: " + name);
+        }
+        return ('8' - name.charAt(1)) * BoardUtils.NUM_SQUARES_PER_ROW + (name.charAt(0) - 'a');
+    }
+
+    private static String squareName(final int square) {
+        return "" + (char) ('a' + square % BoardUtils.NUM_SQUARES_PER_ROW) +
+                (char) ('8' - square / BoardUtils.NUM_SQUARES_PER_ROW);
+    }
+}
@@ -0,0 +1,84 @@
+package utils;
+
+import entities.Alliance;
+import entities.PieceType;
+
+import java.util.Random;
+
+/**
+ * Random keys for Zobrist hashing of positions.
+ *
+ * <p>A position's key is the XOR of one key per (piece, square), a key when Black is to move, a key
+ * for the castling rights and a key for the en passant file. Because XOR is its own inverse, a move
+ * updates the key by XOR-ing out what it removes and XOR-ing in what it adds, without rehashing the
+ * whole board. Keys come from a fixed seed so that a position hashes the same in every run.</p>
+ */
+public final class Zobrist {
+
+    private static final long SEED = 0x2F6B_5A1D_93C4_E807L;
+
+    private static final int NUM_PIECE_TYPES = PieceType.values().length;
+
+    private static final long[][] PIECE_SQUARE_KEYS = new long[Alliance.values().length * NUM_PIECE_TYPES][BoardUtils.NUM_SQUARES];
+    private static final long[] CASTLING_KEYS = new long[BoardUtils.ALL_CASTLING_RIGHTS + 1];
+    private static final long[] EN_PASSANT_FILE_KEYS = new long[BoardUtils.NUM_SQUARES_PER_ROW];
+    private static final long BLACK_TO_MOVE_KEY;
+
+    static {
+        final Random random = new Random(SEED);
+        for (final long[] squareKeys : PIECE_SQUARE_KEYS) {
+            for (int square = 0; square < squareKeys.length; square++) {
+                squareKeys[square] = random.nextLong();
+            }
+        }
+        // No rights hash to zero, so a board without castling rights needs no castling key
+        for (int rights = 1; rights < CASTLING_KEYS.length; rights++) {
+            CASTLING_KEYS[rights] = random.nextLong();
+        }
+        for (int file = 0; file < EN_PASSANT_FILE_KEYS.length; file++) {
+            EN_PASSANT_FILE_KEYS[file] = random.nextLong();
+        }
+        BLACK_TO_MOVE_KEY = random.nextLong();
+    }
+
+    private Zobrist() {
+        throw new RuntimeException("Cannot instantiate Zobrist");
+    }
+
+    /**
+     * Key of a piece standing on a square.
+     *
+     * @param pieceIndex {@code alliance.ordinal() * 6 + pieceType.ordinal()}, the bitboard index used by the boards
+     * @param square the square the piece stands on
+     */
+    public static long getPieceKey(final int pieceIndex, final int square) {
+        return PIECE_SQUARE_KEYS[pieceIndex][square];
+    }
+
+    public static long getPieceKey(final Alliance alliance, final PieceType pieceType, final int square) {
+        return PIECE_SQUARE_KEYS[alliance.ordinal() * NUM_PIECE_TYPES + pieceType.ordinal()][square];
+    }
+
+    /**
+     * Key of a set of castling rights (a combination of the BoardUtils *_CASTLE bits).
+     */
+    public static long getCastlingKey(final int castlingRights) {
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    /**
+     * Key of an en passant target; only its file is hashed.
+     *
+     * @param square any square on the file of the pawn that just jumped
+     */
+    public static long getEnPassantKey(final int square) {
+        return EN_PASSANT_FILE_KEYS[square % BoardUtils.NUM_SQUARES_PER_ROW];
+    }
+
+    /**
+     * Key XOR-ed in when Black is to move.
+     */
+    public static long getBlackToMoveKey() {
+        return BLACK_TO_MOVE_KEY;
+    }
+}
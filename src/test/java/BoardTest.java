@@ -1,8 +1,18 @@
+import entities.Alliance;
 import entities.Board;
+import entities.GameStatus;
+import entities.King;
+import entities.Queen;
 import core.Move;
 import entities.MoveTransition;
+import players.StagedMoveGenerator;
+import utils.BoardUtils;
+import utils.FenUtilities;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class BoardTest {
@@ -53,5 +63,103 @@ class BoardTest {
 
         final Board board5 = transition4.getTransitionBoard();
         assertTrue(board5.getCurrentPlayer().isInCheckMate());
+        assertEquals(GameStatus.CHECKMATE, board5.getGameStatus());
+    }
+
+    @Test
+    public void testStaleMate() {
+        final Board.Builder builder = new Board.Builder();
+        // Black King in the corner, boxed in by the White Queen on c7 but not attacked
+        builder.setPiece(King.create(0, Alliance.BLACK, false));
+        builder.setPiece(Queen.create(10, Alliance.WHITE, false));
+        builder.setPiece(King.create(63, Alliance.WHITE, false));
+        builder.setNextMoveMaker(Alliance.BLACK);
+        final Board board = builder.build();
+
+        assertEquals(GameStatus.STALEMATE, board.getGameStatus());
+        assertTrue(board.getCurrentPlayer().isInStaleMate());
+        assertFalse(board.getCurrentPlayer().isInCheckMate());
+        assertEquals(GameStatus.IN_PROGRESS, Board.createStandardBoard().getGameStatus());
+    }
+
+    @Test
+    public void testZobristKeyTranspositions() {
+        final Board board = Board.createStandardBoard();
+
+        // Knights out and back (g1-f3, g8-f6, f3-g1, f6-g8) returns to the starting position
+        Board current = board;
+        final int[][] knightMoves = {{62, 45}, {6, 21}, {45, 62}, {21, 6}};
+        for (final int[] knightMove : knightMoves) {
+            final Move move = Move.MoveFactory.createMove(current, knightMove[0], knightMove[1]);
+            current = current.getCurrentPlayer().makeMove(move).getTransitionBoard();
+        }
+        assertEquals(board.getZobristKey(), current.getZobristKey());
+
+        // Any real move changes the key
+        final Board afterE4 = board.getCurrentPlayer().makeMove(Move.MoveFactory.createMove(board, 52, 36)).getTransitionBoard();
+        assertNotEquals(board.getZobristKey(), afterE4.getZobristKey());
+    }
+
+    @Test
+    public void testZobristKeyMatchesFullHash() {
+        Board board = Board.createStandardBoard();
+        // e4, d5, exd5 (capture), Qxd5, Nc3 (the queen is attacked), play on and compare with a freshly hashed copy
+        final int[][] moves = {{52, 36}, {11, 27}, {36, 27}, {3, 27}, {57, 42}};
+        for (final int[] coordinates : moves) {
+            final Move move = Move.MoveFactory.createMove(board, coordinates[0], coordinates[1]);
+            board = board.getCurrentPlayer().makeMove(move).getTransitionBoard();
+
+            final Board.Builder builder = new Board.Builder();
+            for (int i = 0; i < 64; i++) {
+                if (board.getPiece(i) != null) {
+                    builder.setPiece(board.getPiece(i));
+                }
+            }
+            builder.setNextMoveMaker(board.getCurrentPlayer().getAlliance());
+            builder.setEnPassantPawn(board.getEnPassantPawn());
+            assertEquals(builder.build().getZobristKey(), board.getZobristKey());
+        }
+    }
+
+    @Test
+    public void testStagedMoves() {
+        final Board board = Board.createStandardBoard();
+        final Move hashMove = Move.MoveFactory.createMove(board, 57, 42);   // Nc3
+        final Move killerMove = Move.MoveFactory.createMove(board, 52, 36); // e4
+
+        final StagedMoveGenerator stagedMoves = board.getCurrentPlayer().getStagedMoves(hashMove, killerMove);
+        assertEquals(hashMove, stagedMoves.next());
+        assertEquals("HASH_MOVE", stagedMoves.getStageName());
+        // No captures or promotions in the opening position, so the killer comes next
+        assertEquals(killerMove, stagedMoves.next());
+        assertEquals("KILLER_MOVES", stagedMoves.getStageName());
+
+        final Set<Move> yielded = new HashSet<>(Set.of(hashMove, killerMove));
+        while (stagedMoves.hasNext()) {
+            assertTrue(yielded.add(stagedMoves.next()));
+        }
+        assertEquals(new HashSet<>(board.getCurrentPlayer().getLegalMoves()), yielded);
+        assertTrue(board.getCurrentPlayer().getCaptureMoves().isEmpty());
+    }
+
+    @Test
+    public void testCastlingRightsAndFen() {
+        final String fen = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+        final Board board = FenUtilities.createBoardFromFen(fen);
+        assertEquals(BoardUtils.ALL_CASTLING_RIGHTS, board.getCastlingRights());
+        assertEquals(fen, FenUtilities.createFenFromBoard(board));
+
+        // Rook h1-g1 gives up white's king side castle for good, even after the rook returns
+        final Board afterRookMove = board.getCurrentPlayer().makeMove(
+                Move.MoveFactory.createMove(board, 63, 62)).getTransitionBoard();
+        assertEquals("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K1R1 b Qkq - 0 1",
+                FenUtilities.createFenFromBoard(afterRookMove));
+
+        // a2-a4 can be taken en passant by the pawn on b4
+        final Board afterJump = board.getCurrentPlayer().makeMove(
+                Move.MoveFactory.createMove(board, 48, 32)).getTransitionBoard();
+        final Board reloaded = FenUtilities.createBoardFromFen(FenUtilities.createFenFromBoard(afterJump));
+        assertEquals(afterJump.getZobristKey(), reloaded.getZobristKey());
+        assertEquals(afterJump.getCurrentPlayer().getLegalMoves().size(), reloaded.getCurrentPlayer().getLegalMoves().size());
     }
-}
\ No newline at end of file
+}
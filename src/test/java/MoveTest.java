@@ -16,10 +16,10 @@ class MoveTest {
     public void testCastling() {
         final Board.Builder builder = new Board.Builder();
         // Setup: White King (60) and Rook (63) with empty space between
-        builder.setPiece(new King(60, Alliance.WHITE, true));
-        builder.setPiece(new Rook(63, Alliance.WHITE, true));
+        builder.setPiece(King.create(60, Alliance.WHITE, true));
+        builder.setPiece(Rook.create(63, Alliance.WHITE, true));
         // Add a Black King just to make the board valid
-        builder.setPiece(new King(4, Alliance.BLACK));
+        builder.setPiece(King.create(4, Alliance.BLACK));
 
         builder.setNextMoveMaker(Alliance.WHITE);
         final Board board = builder.build();
@@ -44,11 +44,11 @@ class MoveTest {
     public void testEnPassant() {
         final Board.Builder builder = new Board.Builder();
         // White Pawn at E5 (Index 28)
-        builder.setPiece(new Pawn(28, Alliance.WHITE));
+        builder.setPiece(Pawn.create(28, Alliance.WHITE));
         // Black Pawn at D7 (Index 11), ready to jump
-        builder.setPiece(new Pawn(11, Alliance.BLACK));
-        builder.setPiece(new King(60, Alliance.WHITE));
-        builder.setPiece(new King(4, Alliance.BLACK));
+        builder.setPiece(Pawn.create(11, Alliance.BLACK));
+        builder.setPiece(King.create(60, Alliance.WHITE));
+        builder.setPiece(King.create(4, Alliance.BLACK));
 
         builder.setNextMoveMaker(Alliance.BLACK);
         final Board board = builder.build();
@@ -74,4 +74,26 @@ class MoveTest {
         assertTrue(boardAfterCapture.getSquare(19).isOccupied());
         assertEquals(PieceType.PAWN, boardAfterCapture.getSquare(19).getPiece().getPieceType());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testLegalMoveLookup() {
+        final Board.Builder builder = new Board.Builder();
+        // White Pawn on B7 (Index 9) about to promote, Kings out of the way
+        builder.setPiece(Pawn.create(9, Alliance.WHITE));
+        builder.setPiece(King.create(60, Alliance.WHITE));
+        builder.setPiece(King.create(7, Alliance.BLACK));
+        builder.setNextMoveMaker(Alliance.WHITE);
+        final Board board = builder.build();
+
+        // Without a promotion piece the lookup gives the Queen promotion
+        final Move promotion = board.getCurrentPlayer().getLegalMove(9, 1, null);
+        assertEquals(PieceType.QUEEN, promotion.getPromotionPieceType());
+        assertEquals(PieceType.KNIGHT, board.getCurrentPlayer().getLegalMove(9, 1, PieceType.KNIGHT).getPromotionPieceType());
+        assertTrue(board.getCurrentPlayer().isMoveLegal(promotion));
+
+        // B8 is the only destination of the pawn; A1 holds nothing
+        assertEquals(1L << 1, board.getCurrentPlayer().getLegalDestinations(9));
+        assertEquals(0L, board.getCurrentPlayer().getLegalDestinations(56));
+        assertNull(board.getCurrentPlayer().getLegalMove(9, 17, null));
+    }
+}
@@ -0,0 +1,46 @@
+import core.ai.Perft;
+import core.ai.SearchBoard;
+import entities.Board;
+import utils.FenUtilities;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerftTest {
+
+    @Test
+    public void testReferencePositions() {
+        // Shallow depths keep the suite fast; Perft.main checks the deeper counts
+        for (final Perft.ReferencePosition position : Perft.REFERENCE_POSITIONS) {
+            final SearchBoard board = new SearchBoard(FenUtilities.createBoardFromFen(position.getFen()));
+            for (int depth = 1; depth <= 3; depth++) {
+                assertEquals(position.getExpectedNodes(depth), Perft.perft(board, depth, true), position.getName());
+            }
+            // Without bulk counting every leaf is played, which must give the same count
+            assertEquals(position.getExpectedNodes(2), Perft.perft(board, 2, false), position.getName());
+        }
+    }
+
+    @Test
+    public void testDivide() {
+        final Perft.ReferencePosition kiwipete = Perft.REFERENCE_POSITIONS.get(1);
+        final Board board = FenUtilities.createBoardFromFen(kiwipete.getFen());
+
+        final Perft.Result result = Perft.divide(board, 3, true, ForkJoinPool.commonPool());
+        assertEquals(kiwipete.getExpectedNodes(3), result.getNodes());
+        assertEquals(48, result.getDivide().size());
+        // Castling king side from Kiwipete: e1-g1 leads to 2059 positions after two more plies
+        assertEquals(2059L, result.getDivide().get("e1g1"));
+    }
+
+    @Test
+    public void testBoardPerft() {
+        // The immutable Board path builds every position, so only go two plies deep
+        for (final Perft.ReferencePosition position : Perft.REFERENCE_POSITIONS) {
+            final Board board = FenUtilities.createBoardFromFen(position.getFen());
+            assertEquals(position.getExpectedNodes(2), Perft.perft(board, 2), position.getName());
+        }
+    }
+}
@@ -1,11 +1,15 @@
+import core.Move;
 import entities.Alliance;
 import entities.Board;
 
 import entities.King;
+import entities.Piece;
+import entities.PieceType;
 import entities.Rook;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 class PieceTest {
 
@@ -14,13 +18,13 @@ class PieceTest {
         final Board.Builder builder = new Board.Builder();
 
         // 1. The Rook we want to test (at D4 / 35)
-        builder.setPiece(new Rook(35, Alliance.WHITE));
+        builder.setPiece(Rook.create(35, Alliance.WHITE));
 
         // 2. Place it far away (e.g., corner) so it doesn't block the Rook
-        builder.setPiece(new King(63, Alliance.WHITE));
+        builder.setPiece(King.create(63, Alliance.WHITE));
 
         // 3. Add a Black King too (BlackPlayer needs one)
-        builder.setPiece(new King(4, Alliance.BLACK));
+        builder.setPiece(King.create(4, Alliance.BLACK));
 
         builder.setNextMoveMaker(Alliance.WHITE);
 
@@ -30,4 +34,17 @@ class PieceTest {
         // expect 14 moves for the Rook + 3 moves for the King in the corner = 17 total
         assertEquals(14 + 3, board.getCurrentPlayer().getLegalMoves().size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPiecesAreInterned() {
+        assertSame(Rook.create(35, Alliance.WHITE), Rook.create(35, Alliance.WHITE, true));
+        assertSame(King.create(4, Alliance.BLACK, false), Piece.create(PieceType.KING, 4, Alliance.BLACK, false));
+
+        // Moving a piece hands back the interned piece on its destination
+        final Board board = Board.createStandardBoard();
+        final Board afterMove = board.getCurrentPlayer().makeMove(
+                Move.MoveFactory.createMove(board, 62, 45)).getTransitionBoard();
+        assertSame(afterMove.getPiece(45), board.getPiece(62).movePiece(
+                Move.MoveFactory.createMove(board, 62, 45)));
+    }
+}
@@ -0,0 +1,266 @@
+import core.Move;
+import core.PackedMove;
+import core.ai.AlphaBeta;
+import core.ai.LazySmpSearch;
+import core.ai.MiniMax;
+import core.ai.MoveOrderer;
+import core.ai.ParallelMiniMax;
+import core.ai.PrincipalVariationSearch;
+import core.ai.SearchBoard;
+import core.ai.TimeBudget;
+import core.ai.TranspositionTable;
+import entities.Board;
+import entities.PieceType;
+import utils.FenUtilities;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchTest {
+
+    private static final String[] POSITIONS = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq - 2 2",
+            "8/5pk1/6p1/3R4/1r5P/6P1/5PK1/8 b - - 0 40"
+    };
+
+    @Test
+    public void testAlphaBetaMatchesMiniMax() {
+        for (final String fen : POSITIONS) {
+            final Board board = FenUtilities.createBoardFromFen(fen);
+            final Move expected = new MiniMax(3).execute(board);
+            final AlphaBeta alphaBeta = new AlphaBeta(3);
+            // quiescence and the selective extensions change the tree, so only plain alpha-beta scores the same one
+            alphaBeta.setQuiescenceEnabled(false);
+            alphaBeta.setNullMovePruningEnabled(false);
+            alphaBeta.setLateMoveReductionsEnabled(false);
+            assertEquals(expected, alphaBeta.execute(board), fen);
+            assertTrue(alphaBeta.getNodesSearched() > 0);
+        }
+    }
+
+    @Test
+    public void testAlphaBetaFindsMate() {
+        // Back rank: Ra1-a8 mates at once
+        final Board board = FenUtilities.createBoardFromFen("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - 0 1");
+        final Move move = new AlphaBeta(3).execute(board);
+        assertEquals(56, move.getMovedPiece().getPiecePosition());
+        assertEquals(0, move.getDestinationCoordinate());
+    }
+
+    @Test
+    public void testIterativeDeepeningKeepsToTimeBudget() {
+        final Board board = FenUtilities.createBoardFromFen(POSITIONS[1]);
+        final AlphaBeta alphaBeta = new AlphaBeta(AlphaBeta.MAX_DEPTH, new TimeBudget(50, 200), new TranspositionTable(16));
+
+        final long startTime = System.currentTimeMillis();
+        final Move move = alphaBeta.execute(board);
+        final long elapsed = System.currentTimeMillis() - startTime;
+
+        // Kiwipete cannot be searched to the maximum depth in 200ms, so the hard limit cut it short
+        assertTrue(board.getCurrentPlayer().isMoveLegal(move));
+        assertTrue(alphaBeta.getCompletedDepth() >= 1 && alphaBeta.getCompletedDepth() < AlphaBeta.MAX_DEPTH);
+        assertTrue(elapsed < 1000, "took " + elapsed + "ms");
+    }
+
+    @Test
+    public void testTimeBudgetFromClock() {
+        final TimeBudget budget = TimeBudget.fromRemainingTime(60_000);
+        assertTrue(budget.getSoftLimitMillis() <= budget.getHardLimitMillis());
+        // A single move never takes more than a fifth of the clock
+        assertTrue(budget.getHardLimitMillis() <= 12_000);
+        assertTrue(TimeBudget.fromRemainingTime(0).getHardLimitMillis() > 0);
+    }
+
+    @Test
+    public void testTranspositionTable() {
+        final TranspositionTable table = new TranspositionTable(1);
+        assertEquals(1024 * 1024 / 16, table.getCapacity());
+
+        final long key = 0x9D39247E33776D41L;
+        final int move = PackedMove.create(52, 36, PieceType.PAWN.ordinal(), PackedMove.NO_PIECE_TYPE,
+                PackedMove.NO_PIECE_TYPE, PackedMove.PAWN_JUMP);
+        table.store(key, 7, TranspositionTable.LOWER_BOUND, -12345, move);
+
+        final long entry = table.probe(key);
+        assertEquals(move, TranspositionTable.getMove(entry));
+        assertEquals(-12345, TranspositionTable.getScore(entry));
+        assertEquals(7, TranspositionTable.getDepth(entry));
+        assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.getBound(entry));
+
+        // Same bucket, different position: a miss, not the stored data
+        assertEquals(0L, table.probe(key ^ (1L << 40)));
+
+        // A shallower result of another position in the bucket goes to the always-replace entry
+        table.store(key ^ (1L << 40), 2, TranspositionTable.EXACT, 50, PackedMove.NO_MOVE);
+        assertEquals(7, TranspositionTable.getDepth(table.probe(key)));
+        assertEquals(50, TranspositionTable.getScore(table.probe(key ^ (1L << 40))));
+    }
+
+    @Test
+    public void testMoveOrdering() {
+        // Kiwipete: white has captures of pawns, a knight and a bishop available
+        final SearchBoard board = new SearchBoard(FenUtilities.createBoardFromFen(POSITIONS[1]));
+        final int[] moves = new int[SearchBoard.MAX_MOVES];
+        final int numMoves = board.generateMoves(moves);
+        int hashMove = PackedMove.NO_MOVE;
+        int killerMove = PackedMove.NO_MOVE;
+        for (int i = 0; i < numMoves; i++) {
+            if (!PackedMove.isCapture(moves[i])) {
+                if (hashMove == PackedMove.NO_MOVE) {
+                    hashMove = moves[i];
+                } else if (killerMove == PackedMove.NO_MOVE) {
+                    killerMove = moves[i];
+                }
+            }
+        }
+
+        final MoveOrderer orderer = new MoveOrderer();
+        orderer.recordCutoff(killerMove, 0, 0, 3);
+        orderer.scoreMoves(moves, numMoves, 0, 0, hashMove);
+
+        assertEquals(hashMove, orderer.nextMove(moves, 0, numMoves, 0));
+        // Then the captures, most valuable victim first
+        int index = 1;
+        int lastVictimValue = Integer.MAX_VALUE;
+        while (PackedMove.isCapture(orderer.nextMove(moves, index, numMoves, 0))) {
+            final int victimValue = PieceType.values()[PackedMove.getCapturedType(moves[index])].getPieceValue();
+            assertTrue(victimValue <= lastVictimValue);
+            lastVictimValue = victimValue;
+            index++;
+        }
+        assertEquals(8, index - 1);
+        // The killer leads the quiet moves
+        assertEquals(killerMove, moves[index]);
+    }
+
+    @Test
+    public void testIsLegalMove() {
+        // Both colours to move, castling on both wings and an en passant capture
+        final List<SearchBoard> boards = new ArrayList<>();
+        for (final String fen : POSITIONS) {
+            boards.add(new SearchBoard(FenUtilities.createBoardFromFen(fen)));
+        }
+        boards.add(new SearchBoard(FenUtilities.createBoardFromFen("4k3/8/8/8/3pP3/8/8/4K3 b - e3 0 1")));
+        final SearchBoard kiwipeteBlack = new SearchBoard(FenUtilities.createBoardFromFen(POSITIONS[1]));
+        kiwipeteBlack.makeNullMove();
+        boards.add(kiwipeteBlack);
+
+        final List<int[]> legalMoves = new ArrayList<>();
+        for (final SearchBoard board : boards) {
+            final int[] moves = new int[SearchBoard.MAX_MOVES];
+            legalMoves.add(Arrays.copyOf(moves, board.generateMoves(moves)));
+        }
+        // A move of any of the positions is legal in another exactly when that one generates it too
+        for (int i = 0; i < boards.size(); i++) {
+            for (final int[] candidates : legalMoves) {
+                for (final int move : candidates) {
+                    final boolean generated = Arrays.stream(legalMoves.get(i)).anyMatch(legal -> legal == move);
+                    assertEquals(generated, boards.get(i).isLegalMove(move), i + ": " + PackedMove.toString(move));
+                }
+            }
+        }
+        assertFalse(boards.get(0).isLegalMove(PackedMove.NO_MOVE));
+    }
+
+    @Test
+    public void testQuiescenceAvoidsHorizonBlunder() {
+        // Qxd5 wins a pawn at depth 1, but the pawn on c6 takes the queen back
+        final Board board = FenUtilities.createBoardFromFen("4k3/8/2p5/3p4/8/8/8/3QK3 w - - 0 1");
+
+        final AlphaBeta withoutQuiescence = new AlphaBeta(1);
+        withoutQuiescence.setQuiescenceEnabled(false);
+        assertEquals(27, withoutQuiescence.execute(board).getDestinationCoordinate());
+        assertEquals(0, withoutQuiescence.getQuiescenceNodesSearched());
+
+        final AlphaBeta withQuiescence = new AlphaBeta(1);
+        assertNotEquals(27, withQuiescence.execute(board).getDestinationCoordinate());
+        assertTrue(withQuiescence.getQuiescenceNodesSearched() > 0);
+    }
+
+    @Test
+    public void testPrincipalVariationSearch() {
+        for (final String fen : POSITIONS) {
+            final Board board = FenUtilities.createBoardFromFen(fen);
+            final AlphaBeta alphaBeta = new AlphaBeta(4);
+            final PrincipalVariationSearch pvs = new PrincipalVariationSearch(4);
+            final Move move = pvs.execute(board);
+            assertEquals(alphaBeta.execute(board), move, fen);
+
+            // The line starts with the move played and holds one move per ply searched
+            assertEquals(4, pvs.getPrincipalVariationLength(), fen);
+            assertEquals(move, Move.MoveFactory.createMove(board, pvs.getPrincipalVariationMove(0)));
+            assertEquals(4, pvs.getPrincipalVariationString().split(" ").length);
+        }
+    }
+
+    @Test
+    public void testSelectiveSearchReducesNodes() {
+        final Board board = FenUtilities.createBoardFromFen(POSITIONS[1]);
+        final AlphaBeta fullWidth = new PrincipalVariationSearch(5);
+        fullWidth.setNullMovePruningEnabled(false);
+        fullWidth.setLateMoveReductionsEnabled(false);
+        final Move fullWidthMove = fullWidth.execute(board);
+        assertEquals(0, fullWidth.getNullMoveCutoffs());
+        assertEquals(0, fullWidth.getLateMoveReductions());
+
+        final AlphaBeta selective = new PrincipalVariationSearch(5);
+        final Move selectiveMove = selective.execute(board);
+        assertTrue(board.getCurrentPlayer().isMoveLegal(selectiveMove));
+        assertTrue(board.getCurrentPlayer().isMoveLegal(fullWidthMove));
+        assertTrue(selective.getNullMoveCutoffs() > 0);
+        assertTrue(selective.getLateMoveReductions() > selective.getLateMoveResearches());
+        assertTrue(selective.getNodesSearched() < fullWidth.getNodesSearched(),
+                selective.getNodesSearched() + " vs " + fullWidth.getNodesSearched());
+    }
+
+    @Test
+    public void testNullMoveKeepsBoardIntact() {
+        // Black to move with an en passant square, and white with pawns only
+        final SearchBoard board = new SearchBoard(FenUtilities.createBoardFromFen("4k3/8/8/8/3pP3/8/8/4K3 b - e3 0 1"));
+        final long key = board.getZobristKey();
+        board.makeNullMove();
+        assertTrue(board.getSideToMove().isWhite());
+        assertNotEquals(key, board.getZobristKey());
+        board.unmakeNullMove();
+        assertEquals(key, board.getZobristKey());
+        assertFalse(board.getSideToMove().isWhite());
+        assertEquals(0, board.getNonPawnMaterial(board.getSideToMove()));
+    }
+
+    @Test
+    public void testLazySmpSearch() {
+        for (final String fen : POSITIONS) {
+            final Board board = FenUtilities.createBoardFromFen(fen);
+            // One thread is just the principal variation search
+            assertEquals(new PrincipalVariationSearch(4).execute(board), new LazySmpSearch(4, 1).execute(board), fen);
+
+            final LazySmpSearch smp = new LazySmpSearch(5, 4);
+            final Move move = smp.execute(board);
+            assertTrue(board.getCurrentPlayer().isMoveLegal(move), fen);
+            assertEquals(5, smp.getCompletedDepth(), fen);
+            assertTrue(smp.getNodesSearched() > 0);
+        }
+    }
+
+    @Test
+    public void testParallelMiniMaxMatchesMiniMax() {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (final String fen : POSITIONS) {
+                final Board board = FenUtilities.createBoardFromFen(fen);
+                final Move expected = new MiniMax(3).execute(board);
+                assertEquals(expected, new ParallelMiniMax(3, pool, false).execute(board), fen);
+                assertEquals(expected, new ParallelMiniMax(3, pool, true).execute(board), fen);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}